@@ -0,0 +1,73 @@
+package com.msmtech.restaurantapp.benchmark;
+
+import com.msmtech.restaurantapp.config.JwtUtil;
+import com.msmtech.restaurantapp.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token paths: issuing on login/registration and verifying on every authenticated request
+ * that misses the token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    // Stateless principal mode adds the user id and role claims to every token
+    @Param({"false", "true"})
+    private boolean statelessPrincipal;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "mySecretKeyForJWTTokenGenerationInRestaurantApp2024");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "statelessPrincipal", statelessPrincipal);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        user = new User("jane@example.com", "{bcrypt}unused", "Jane Customer", "5550001111", "CUSTOMER");
+        user.setId(7L);
+        userDetails = new org.springframework.security.core.userdetails.User(
+                user.getEmail(), user.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+}
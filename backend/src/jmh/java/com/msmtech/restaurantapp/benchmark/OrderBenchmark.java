@@ -0,0 +1,142 @@
+package com.msmtech.restaurantapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.dto.OrderPageResponse;
+import com.msmtech.restaurantapp.dto.OrderResponse;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderItem;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order paths run on every order request: building the response DTO, serializing it,
+ * recomputing the total and changing the status. The page benchmarks compare the two ways a listing
+ * endpoint can write its orders: response DTOs serialized by reflection, or the entities through
+ * {@code OrderJsonSerializer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    // One pass through the order lifecycle; after the last step the order is put back to PENDING
+    private static final String[] LIFECYCLE = {"CONFIRMED", "PREPARING", "COMPLETED"};
+
+    // A default-size listing page
+    private static final int PAGE_SIZE = 20;
+    private static final String NEXT_CURSOR = "MjAyNC0wNS0wMVQxODozMDowMHw0Mg";
+
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private Order order;
+    private List<Order> page;
+    private OrderResponse response;
+    private ObjectMapper objectMapper;
+    private int statusIndex;
+
+    @Setup
+    public void setUp() {
+        // Same Jackson defaults Spring Boot applies to the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem((long) i + 1, "Menu item " + (i + 1), 1 + i % 3, 4.5 + i);
+            item.setId((long) i + 1);
+            items.add(item);
+        }
+        order = new Order(null, "Jane Customer", "5550001111", "12 Main Street", "No onions", new ArrayList<>());
+        order.setId(42L);
+        order.setCustomerEmail("jane@example.com");
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 1, 18, 30));
+        order.setItems(items);
+
+        response = new OrderResponse(order);
+
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(order);
+        }
+    }
+
+    @Benchmark
+    public OrderResponse buildResponse() {
+        return new OrderResponse(order);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new OrderResponse(order));
+    }
+
+    @Benchmark
+    public byte[] serializePageOfResponses() throws JsonProcessingException {
+        List<OrderResponse> items = new ArrayList<>(page.size());
+        for (Order pageOrder : page) {
+            items.add(new OrderResponse(pageOrder));
+        }
+        return objectMapper.writeValueAsBytes(new ResponsePage(items, NEXT_CURSOR));
+    }
+
+    @Benchmark
+    public byte[] serializePageOfOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new OrderPageResponse(page, NEXT_CURSOR));
+    }
+
+    @Benchmark
+    public Double calculateTotal() {
+        order.calculateTotal();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public OrderStatus updateStatus() {
+        if (statusIndex == LIFECYCLE.length) {
+            statusIndex = 0;
+            order.setStatus(OrderStatus.PENDING);
+        }
+        order.updateStatus(OrderStatus.parse(LIFECYCLE[statusIndex++]));
+        return order.getStatus();
+    }
+
+    // The page shape built from response DTOs, as listings were written before OrderJsonSerializer
+    public static class ResponsePage {
+        private final List<OrderResponse> items;
+        private final String nextCursor;
+
+        ResponsePage(List<OrderResponse> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<OrderResponse> getItems() { return items; }
+
+        public String getNextCursor() { return nextCursor; }
+    }
+}
@@ -0,0 +1,344 @@
+package com.msmtech.restaurantapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderItem;
+import com.msmtech.restaurantapp.entity.User;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import com.msmtech.restaurantapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the whole application on an in-memory database, seeds users and orders, then runs
+ * concurrent client sessions that log in, browse the menu, list their orders and place new ones.
+ * Reports p50/p99 latency and throughput per endpoint on stdout and as JSON.
+ * Sizing comes from system properties, see the loadtest profile in pom.xml.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class MixedWorkloadLoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final int userCount = Integer.getInteger("loadtest.users", 200);
+    private final int orderCount = Integer.getInteger("loadtest.orders", 2000);
+    private final int clients = Integer.getInteger("loadtest.clients", 32);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+    private final String reportPath = System.getProperty("loadtest.report", "target/loadtest-result.json");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private List<MenuItem> menu;
+
+    // Share of each operation in the mix; a session logs in again (as a random user) on every LOGIN
+    enum Endpoint {
+        LOGIN("POST /api/auth/login", 10),
+        MENU("GET /api/menu", 45),
+        MY_ORDERS("GET /api/orders/my-orders", 25),
+        CREATE_ORDER("POST /api/orders", 20);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        static Endpoint pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(100);
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return MENU;
+        }
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        seed();
+
+        System.out.printf("Load test: %d users, %d orders, %d clients, %ds warm-up, %ds measured%n",
+                userCount, orderCount, clients, warmupSeconds, durationSeconds);
+        runClients(warmupSeconds);
+        Map<Endpoint, Samples> results = runClients(durationSeconds);
+
+        Map<String, Object> report = report(results);
+        File reportFile = new File(reportPath);
+        reportFile.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            Samples samples = results.get(endpoint);
+            assertTrue(samples.count > 0, "No requests completed for " + endpoint.label);
+            assertTrue(samples.errors <= samples.count / 100,
+                    endpoint.label + " failed " + samples.errors + " of " + samples.count + " requests");
+        }
+    }
+
+    private void seed() {
+        // Hashing once keeps seeding fast; every user logs in with the same password
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User(emailOf(i), passwordHash, "Load User " + i, String.format("55%08d", i), "CUSTOMER"));
+        }
+        users = userRepository.saveAll(users);
+
+        menu = menuRepository.findAll();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> batch = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            User user = users.get(i % userCount);
+            Order order = new Order(user, user.getFullName(), user.getPhone(), "1 Load Street", null, new ArrayList<>());
+            order.setCustomerEmail(user.getEmail());
+            order.setCreatedAt(now.minusMinutes(random.nextInt(90 * 24 * 60)));
+            int itemCount = 1 + random.nextInt(4);
+            for (int j = 0; j < itemCount; j++) {
+                MenuItem menuItem = menu.get(random.nextInt(menu.size()));
+                order.addItem(new OrderItem(menuItem.getId(), menuItem.getName(), 1 + random.nextInt(3), menuItem.getPrice()));
+            }
+            batch.add(order);
+            if (batch.size() == 500) {
+                orderRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        orderRepository.saveAll(batch);
+    }
+
+    private Map<Endpoint, Samples> runClients(int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Map<Endpoint, Samples>>> sessions = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            sessions.add(pool.submit(() -> runSession(deadline)));
+        }
+
+        Map<Endpoint, Samples> merged = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            merged.put(endpoint, new Samples());
+        }
+        for (Future<Map<Endpoint, Samples>> session : sessions) {
+            session.get().forEach((endpoint, samples) -> merged.get(endpoint).addAll(samples));
+        }
+        pool.shutdown();
+        return merged;
+    }
+
+    private Map<Endpoint, Samples> runSession(long deadline) {
+        Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = null;
+
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = token == null ? Endpoint.LOGIN : Endpoint.pick(random);
+            HttpRequest request = buildRequest(endpoint, token, random);
+            long start = System.nanoTime();
+            boolean ok;
+            String body = null;
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                ok = response.statusCode() / 100 == 2;
+                body = response.body();
+            } catch (Exception e) {
+                ok = false;
+            }
+            samples.get(endpoint).record(System.nanoTime() - start, ok);
+
+            if (endpoint == Endpoint.LOGIN && ok) {
+                token = readToken(body);
+            }
+        }
+        return samples;
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint, String token, ThreadLocalRandom random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        switch (endpoint) {
+            case LOGIN:
+                return builder.uri(uri("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+                                "email", emailOf(random.nextInt(userCount)), "password", PASSWORD))))
+                        .build();
+            case MY_ORDERS:
+                return builder.uri(uri("/api/orders/my-orders")).GET().build();
+            case CREATE_ORDER:
+                return builder.uri(uri("/api/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(newOrderBody(random))))
+                        .build();
+            default:
+                return builder.uri(uri("/api/menu")).GET().build();
+        }
+    }
+
+    private Map<String, Object> newOrderBody(ThreadLocalRandom random) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        int itemCount = 1 + random.nextInt(4);
+        for (int i = 0; i < itemCount; i++) {
+            MenuItem menuItem = menu.get(random.nextInt(menu.size()));
+            items.add(Map.of("menuItemId", menuItem.getId(), "menuItemName", menuItem.getName(),
+                    "quantity", 1 + random.nextInt(3), "price", menuItem.getPrice()));
+        }
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("customerName", "Load Customer");
+        order.put("customerPhone", "5550000000");
+        order.put("deliveryAddress", "1 Load Street");
+        order.put("items", items);
+        return order;
+    }
+
+    private Map<String, Object> report(Map<Endpoint, Samples> results) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", userCount);
+        report.put("orders", orderCount);
+        report.put("clients", clients);
+        report.put("durationSeconds", durationSeconds);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalRequests = 0;
+        System.out.printf("%-28s %9s %7s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Samples samples = results.get(endpoint);
+            double throughput = samples.count / (double) durationSeconds;
+            double p50 = samples.percentileMillis(0.50);
+            double p99 = samples.percentileMillis(0.99);
+            System.out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f%n",
+                    endpoint.label, samples.count, samples.errors, throughput, p50, p99);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", samples.count);
+            row.put("errors", samples.errors);
+            row.put("throughput", throughput);
+            row.put("p50Millis", p50);
+            row.put("p99Millis", p99);
+            endpoints.put(endpoint.label, row);
+            totalRequests += samples.count;
+        }
+        System.out.printf("%-28s %9d %7s %9.1f%n", "total", totalRequests, "", totalRequests / (double) durationSeconds);
+        report.put("endpoints", endpoints);
+        report.put("totalThroughput", totalRequests / (double) durationSeconds);
+        return report;
+    }
+
+    private String readToken(String loginResponse) {
+        try {
+            return objectMapper.readTree(loginResponse).path("token").asText(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String emailOf(int userIndex) {
+        return "load" + userIndex + "@example.com";
+    }
+
+    // Latencies of one endpoint, in nanoseconds; owned by a single session until merged
+    static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.msmtech.restaurantapp.config;
 
 import com.msmtech.restaurantapp.service.CustomUserDetailsService;
+import com.msmtech.restaurantapp.service.TokenPrincipal;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +22,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,35 +34,90 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired(required = false)
+    private List<TokenRevocationHook> revocationHooks = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verificationTimer;
+
+    // How long role/id claims are trusted before the user is re-read from the database
+    @Value("${jwt.stateless-principal.max-staleness:900000}")
+    private long maxStalenessMillis;
+
+    @PostConstruct
+    void initMetrics() {
+        verificationTimer = Timer.builder("jwt.verification")
+                .description("Signature and expiry check of bearer tokens that missed the token cache")
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.warn("JWT token validation failed: " + e.getMessage());
-            }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+                UserDetails userDetails = resolveUser(jwt);
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+            } catch (Exception e) {
+                logger.warn("JWT token validation failed: " + e.getMessage());
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Warm path: no HMAC and no users query. Cold path: one signature check and at most one user lookup, then cached.
+    private UserDetails resolveUser(String jwt) {
+        JwtTokenCache.VerifiedToken cached = tokenCache.get(jwt);
+        if (cached != null) {
+            checkNotRevoked(cached.getClaims());
+            return cached.getUserDetails();
+        }
+
+        // Throws if the signature is bad or the token expired
+        Claims claims = verificationTimer.record(() -> jwtUtil.extractAllClaims(jwt));
+        checkNotRevoked(claims);
+        UserDetails userDetails = principalFromClaims(claims);
+        if (userDetails == null) {
+            userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        tokenCache.put(jwt, claims, userDetails);
+        return userDetails;
+    }
+
+    // Stateless principal mode: trust the verified id and role claims while the token is younger than the staleness bound
+    private UserDetails principalFromClaims(Claims claims) {
+        if (!jwtUtil.isStatelessPrincipal()) {
+            return null;
+        }
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Date issuedAt = claims.getIssuedAt();
+        if (role == null || userId == null || issuedAt == null
+                || System.currentTimeMillis() - issuedAt.getTime() > maxStalenessMillis) {
+            return null; // older token or token issued before the mode was enabled
+        }
+        return new TokenPrincipal(userId, claims.getSubject(), List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private void checkNotRevoked(Claims claims) {
+        for (TokenRevocationHook hook : revocationHooks) {
+            if (hook.isRevoked(claims)) {
+                throw new BadCredentialsException("Token has been revoked for " + claims.getSubject());
+            }
+        }
+    }
 }
\ No newline at end of file
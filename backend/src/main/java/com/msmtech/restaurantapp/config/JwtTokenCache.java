@@ -0,0 +1,104 @@
+package com.msmtech.restaurantapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens that already passed signature verification, together with the
+ * {@link UserDetails} resolved for them. A warm request skips both the HMAC and the users query.
+ * Entries are keyed by the token's signature segment and never outlive the token itself;
+ * the resolved user is additionally capped at {@code jwt.cache.user-ttl} so role changes
+ * and deleted accounts are picked up without waiting for the token to expire.
+ */
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.cache.user-ttl:300000}")
+    private long userTtlMillis;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = value.getClaims().getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(untilExpiry, userTtlMillis)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Hit ratio, size and evictions under cache.* with cache="jwtTokens"
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwtTokens");
+    }
+
+    /**
+     * Returns the cached verification of exactly this token, or null.
+     * The full token is compared so a forged payload reusing a known signature never matches.
+     */
+    public VerifiedToken get(String token) {
+        VerifiedToken cached = cache.getIfPresent(signatureOf(token));
+        return cached != null && cached.getToken().equals(token) ? cached : null;
+    }
+
+    public void put(String token, Claims claims, UserDetails userDetails) {
+        cache.put(signatureOf(token), new VerifiedToken(token, claims, userDetails));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static String signatureOf(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    public static final class VerifiedToken {
+        private final String token;
+        private final Claims claims;
+        private final UserDetails userDetails;
+
+        VerifiedToken(String token, Claims claims, UserDetails userDetails) {
+            this.token = token;
+            this.claims = claims;
+            this.userDetails = userDetails;
+        }
+
+        public String getToken() { return token; }
+
+        public Claims getClaims() { return claims; }
+
+        public UserDetails getUserDetails() { return userDetails; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.msmtech.restaurantapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica, switched on by setting {@code app.datasource.replica.url}. The application then gets two pools:
+ * {@code spring.datasource} (primary, all writes) and {@code app.datasource.replica} (read-only transactions),
+ * behind one routing {@link DataSource}. Without a replica URL Spring Boot sets up the single pool as before.
+ * <p>
+ * Replica credentials default to the primary's; pool settings go under {@code app.datasource.replica.hikari}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    // Lag checks run on the shared scheduler thread, so they must not wait long for a dead replica
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+    private static final long REPLICA_CONNECTION_TIMEOUT_MILLIS = 2000;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:#{null}}") String username,
+                                              @Value("${app.datasource.replica.password:#{null}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username != null ? username : primary.determineUsername())
+                .password(password != null ? password : primary.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Fail fast, so a read falls back to the primary instead of waiting out the usual connection timeout
+        dataSource.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT_MILLIS);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+                                               @Value("${app.datasource.replica.max-lag:1000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(replica, lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery,
+                maxLagMillis, LAG_QUERY_TIMEOUT_SECONDS);
+    }
+
+    // The DataSource everything else (JPA, Flyway, health checks) uses
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor));
+    }
+
+    // By default the request's EntityManager (open-in-view) keeps the first connection it gets until the request
+    // ends, so a write following a read in the same request would run on the replica connection. Handing the
+    // connection back after every transaction lets each transaction be routed on its own.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,109 @@
+package com.msmtech.restaurantapp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Decides whether read-only transactions may use the replica. The replica's replication lag is measured every
+ * {@code app.datasource.replica.check-interval} ms; while it is above {@code max-lag} ms, unknown, or the replica
+ * cannot be reached, reads go to the primary. The replica is not used until the first check has passed.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Lag of a PostgreSQL standby in ms: 0 on a server that is not in recovery or has replayed all the WAL it
+     * received, NULL (unknown) when it is not streaming from the primary.
+     */
+    public static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+            END""";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final int queryTimeoutSeconds;
+
+    private volatile boolean replicaUsable;
+    // -1 until measured, or after a failed check
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, int queryTimeoutSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval:1000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet result = statement.executeQuery(lagQuery)) {
+                long lag = result.next() ? result.getLong(1) : -1;
+                update(result.wasNull() ? -1 : lag);
+            }
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+    }
+
+    // A negative lag means unknown
+    void update(long lag) {
+        lagMillis = lag;
+        boolean usable = lag >= 0 && lag <= maxLagMillis;
+        if (usable != replicaUsable) {
+            replicaUsable = usable;
+            if (usable) {
+                logger.info("Replica lag is {} ms, routing read-only transactions to the replica", lag);
+            } else {
+                logger.warn("Replica lag is {}, routing read-only transactions to the primary",
+                        lag < 0 ? "unknown" : lag + " ms (max " + maxLagMillis + " ms)");
+            }
+        }
+    }
+
+    // Reads go to the primary until the next check succeeds
+    void markUnavailable(SQLException e) {
+        lagMillis = -1;
+        if (replicaUsable) {
+            replicaUsable = false;
+            logger.warn("Replica unavailable, routing read-only transactions to the primary: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLagMillis)
+                .description("Replication lag of the read replica in ms (-1 when unknown)")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.in.use", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.msmtech.restaurantapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}, which includes the Spring Data
+ * repository finders) to the replica while {@link ReplicaLagMonitor} allows it, and everything else to the primary.
+ * <p>
+ * The transaction's read-only flag is only set after the transaction manager asked for a connection, so this
+ * must sit behind a {@code LazyConnectionDataSourceProxy}, which fetches the real connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+
+    // A replica that stops answering between two lag checks costs one failed connection attempt, not the read
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Target.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            lagMonitor.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.msmtech.restaurantapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sessions ended by logout. Access tokens carry their session id ({@link JwtUtil#SESSION_ID_CLAIM}),
+ * and one from a session listed here is refused although its signature and expiry are still valid.
+ * <p>
+ * Held in memory, so a logout is only known to the instance that handled it. An entry is kept as long
+ * as an access token lives, after which every token of the session has expired anyway.
+ */
+@Component
+public class RevokedSessions implements TokenRevocationHook {
+
+    @Value("${jwt.expiration:86400000}")
+    private long accessTokenLifetimeMillis;
+
+    @Value("${jwt.revoked-sessions.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, Boolean> sessions;
+
+    @PostConstruct
+    void init() {
+        sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenLifetimeMillis))
+                .build();
+    }
+
+    public void revoke(String sessionId) {
+        sessions.put(sessionId, Boolean.TRUE);
+    }
+
+    // Tokens issued before session ids were added carry none and run out on their own
+    @Override
+    public boolean isRevoked(Claims claims) {
+        String sessionId = claims.get(JwtUtil.SESSION_ID_CLAIM, String.class);
+        return sessionId != null && sessions.getIfPresent(sessionId) != null;
+    }
+}
@@ -1,6 +1,9 @@
 package com.msmtech.restaurantapp.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,6 +14,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -33,6 +37,16 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // BCrypt work factor for new hashes; stored hashes with a lower one are upgraded on the next login
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     // Add this bean - AuthenticationManager
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
@@ -45,6 +59,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -54,17 +69,34 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (e.g. completing an SSE stream) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/menu/**").permitAll()
                         .requestMatchers("/api/menu").permitAll()
 
+                        // Probes are public; metrics (including the Prometheus scrape) and every other actuator endpoint are for admins
+                        .requestMatchers("/api/health", "/api/health/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
+                        // Order exports are for staff
+                        .requestMatchers("/api/orders/export").hasAnyRole("ADMIN", "STAFF")
+
                         // Order endpoints - allow authenticated users
                         .requestMatchers("/api/orders/user/**").authenticated()
                         .requestMatchers("/api/orders/my-orders").authenticated()
                         .requestMatchers("/api/orders").authenticated()
                         .requestMatchers("/api/orders/**").authenticated()
 
+                        // Kitchen board is for staff
+                        .requestMatchers("/api/kitchen/**").hasAnyRole("ADMIN", "STAFF")
+
+                        // Sales figures are for admins
+                        .requestMatchers("/api/analytics/**").hasRole("ADMIN")
+
                         // Any other request requires authentication
                         .anyRequest().authenticated()
                 )
@@ -92,6 +124,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry);
     }
 }
\ No newline at end of file
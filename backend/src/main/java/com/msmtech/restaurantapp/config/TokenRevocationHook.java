@@ -0,0 +1,13 @@
+package com.msmtech.restaurantapp.config;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Lets the application veto a token that is still cryptographically valid (logout, password
+ * change, banned account). Consulted by {@link JwtAuthenticationFilter} on every request,
+ * including cache hits, so implementations must answer from memory.
+ */
+public interface TokenRevocationHook {
+
+    boolean isRevoked(Claims claims);
+}
@@ -0,0 +1,21 @@
+package com.msmtech.restaurantapp.controller;
+
+// Content negotiation for the endpoints that compress their own bodies
+final class AcceptEncoding {
+
+    private AcceptEncoding() {}
+
+    // True unless the client did not list gzip or refused it with q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
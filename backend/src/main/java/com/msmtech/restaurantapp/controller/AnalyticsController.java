@@ -0,0 +1,78 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.msmtech.restaurantapp.entity.RollupPeriod;
+import com.msmtech.restaurantapp.service.SalesAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+// Sales reports for admins, answered from the rollup tables. Ranges are [from, to) in server-local time.
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_ITEMS = 100;
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    // GET /api/analytics/sales?period=DAY&from=...&to=... - Orders, items and revenue per hour or day
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSales(
+            @RequestParam(defaultValue = "DAY") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        RollupPeriod rollupPeriod;
+        try {
+            rollupPeriod = RollupPeriod.valueOf(period.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid period: " + period + " (HOUR or DAY)");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : rollupPeriod == RollupPeriod.DAY ? end.minusDays(DEFAULT_DAYS) : end.minusHours(24);
+        return ResponseEntity.ok(salesAnalyticsService.getSales(rollupPeriod, start, end));
+    }
+
+    // GET /api/analytics/categories?from=...&to=... - Totals per menu category
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategorySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_DAYS);
+        return ResponseEntity.ok(salesAnalyticsService.getCategorySales(start, end));
+    }
+
+    // GET /api/analytics/items?from=...&to=...&category=...&limit=20 - Best sellers by quantity
+    @GetMapping("/items")
+    public ResponseEntity<?> getTopItems(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_ITEMS) {
+            return ResponseEntity.badRequest().body("Invalid limit: must be between 1 and " + MAX_ITEMS);
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_DAYS);
+        return ResponseEntity.ok(salesAnalyticsService.getTopItems(start, end, category, limit));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRange(IllegalArgumentException e) {
+        logger.warn("Rejected analytics request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
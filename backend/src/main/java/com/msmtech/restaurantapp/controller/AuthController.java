@@ -2,30 +2,47 @@ package com.msmtech.restaurantapp.controller;
 
 import com.msmtech.restaurantapp.dto.AuthRequest;
 import com.msmtech.restaurantapp.dto.AuthResponse;
+import com.msmtech.restaurantapp.dto.RefreshTokenRequest;
 import com.msmtech.restaurantapp.dto.RegistrationRequest;
 import com.msmtech.restaurantapp.entity.User;
 import com.msmtech.restaurantapp.repository.UserRepository;
-import com.msmtech.restaurantapp.service.CustomUserDetailsService;
+import com.msmtech.restaurantapp.service.AuthenticatedUser;
+import com.msmtech.restaurantapp.service.PasswordHashingService;
+import com.msmtech.restaurantapp.service.RefreshTokenService;
 import com.msmtech.restaurantapp.config.JwtUtil;
+import com.msmtech.restaurantapp.config.RevokedSessions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
+    // PostgreSQL reports "Key (email)=...", H2 "... ON PUBLIC.USERS(EMAIL ..."
+    private static final Pattern DUPLICATE_EMAIL = Pattern.compile("\\(\\s*email\\b");
+    private static final Pattern DUPLICATE_PHONE = Pattern.compile("\\(\\s*phone\\b");
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private AuthenticationManager authenticationManager;
 
     @Autowired
     private UserRepository userRepository;
@@ -36,21 +53,83 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevokedSessions revokedSessions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody RegistrationRequest registrationRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody RegistrationRequest registrationRequest) {
+        return onHashingPool("register", () -> register(registrationRequest));
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody AuthRequest authRequest) {
+        return onHashingPool("login", () -> login(authRequest));
+    }
+
+    // Exchanges a refresh token for a new access token and a new refresh token; no password check involved
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest refreshRequest) {
+        if (refreshRequest.getRefreshToken() == null || refreshRequest.getRefreshToken().isBlank()) {
+            return ResponseEntity.badRequest().body("Error: Refresh token is required!");
+        }
         try {
-            System.out.println("📝 Registration request: " + registrationRequest.getEmail());
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            User user = rotation.getUser();
+            AuthResponse authResponse = new AuthResponse(
+                    jwtUtil.generateToken(user, rotation.getSessionId()),
+                    rotation.getRefreshToken(),
+                    user.getEmail(),
+                    user.getPhone(),
+                    user.getFullName(),
+                    user.getRole()
+            );
+            recordOutcome("refresh", "success");
+            return ResponseEntity.ok(authResponse);
 
-            // Check if user already exists
-            if (userRepository.existsByEmail(registrationRequest.getEmail())) {
-                return ResponseEntity.badRequest().body("Error: Email is already taken!");
-            }
+        } catch (RefreshTokenService.InvalidRefreshTokenException e) {
+            logger.info("Refresh refused: {}", e.getMessage());
+            recordOutcome("refresh", "invalid");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Error: Invalid refresh token!");
+        }
+    }
 
-            if (userRepository.existsByPhone(registrationRequest.getPhone())) {
-                return ResponseEntity.badRequest().body("Error: Phone number is already taken!");
-            }
+    // Ends the session of the given refresh token; access tokens issued for it are refused from now on
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshTokenRequest refreshRequest) {
+        if (refreshRequest.getRefreshToken() != null && !refreshRequest.getRefreshToken().isBlank()) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken()).ifPresent(revokedSessions::revoke);
+        }
+        return ResponseEntity.noContent().build();
+    }
 
-            // Create new user account with encoded password
+    // BCrypt runs on the bounded hashing pool and the Tomcat thread is released until the response is ready.
+    // When the pool is saturated the request is refused at once instead of queueing behind the storm.
+    private CompletableFuture<ResponseEntity<?>> onHashingPool(String action, Supplier<ResponseEntity<?>> work) {
+        try {
+            return passwordHashingService.submit(work);
+        } catch (PasswordHashingService.HashingBusyException e) {
+            recordOutcome(action, "rejected");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Error: Too many sign-in attempts right now, please try again in a moment."));
+        }
+    }
+
+    private ResponseEntity<?> register(RegistrationRequest registrationRequest) {
+        try {
+            logger.debug("Registration request: {}", registrationRequest.getEmail());
+
+            // Create new user account with encoded password; duplicates are caught by the unique constraints below
             User user = new User();
             user.setEmail(registrationRequest.getEmail());
             user.setPassword(passwordEncoder.encode(registrationRequest.getPassword()));
@@ -59,76 +138,100 @@ public class AuthController {
             user.setRole(registrationRequest.getRole());
 
             User savedUser = userRepository.save(user);
-            System.out.println("✅ User registered: " + savedUser.getId());
+            logger.info("User registered: {}", savedUser.getId());
 
             // Generate JWT token
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
-            final String jwt = jwtUtil.generateToken(userDetails);
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(savedUser);
+            final String jwt = jwtUtil.generateToken(savedUser, refreshToken.getSessionId());
 
             AuthResponse authResponse = new AuthResponse(
                     jwt,
+                    refreshToken.getRefreshToken(),
                     savedUser.getEmail(),
                     savedUser.getPhone(),
                     savedUser.getFullName(),
                     savedUser.getRole()
             );
 
+            recordOutcome("register", "success");
             return ResponseEntity.ok(authResponse);
 
+        } catch (DataIntegrityViolationException e) {
+            recordOutcome("register", "conflict");
+            return ResponseEntity.badRequest().body(duplicateUserMessage(e));
         } catch (Exception e) {
-            System.out.println("❌ Registration failed: " + e.getMessage());
+            logger.error("Registration failed: {}", e.getMessage(), e);
+            recordOutcome("register", "error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: Registration failed - " + e.getMessage());
         }
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody AuthRequest authRequest) {
+    private ResponseEntity<?> login(AuthRequest authRequest) {
         try {
-            System.out.println("🔐 Login attempt: " + authRequest.getLoginIdentifier());
+            logger.debug("Login attempt: {}", authRequest.getLoginIdentifier());
 
             // Validate that at least one identifier is provided
             if (!authRequest.hasValidIdentifier()) {
+                recordOutcome("login", "bad_request");
                 return ResponseEntity.badRequest().body("Error: Email or phone is required!");
             }
 
             String loginIdentifier = authRequest.getLoginIdentifier();
             String password = authRequest.getPassword();
 
-            // Authenticate user
-            authenticationManager.authenticate(
+            // Authenticate user; the principal carries the user row, so this is the only users query
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginIdentifier, password)
             );
 
-            // Load user details and generate token
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(loginIdentifier);
-            final String jwt = jwtUtil.generateToken(userDetails);
-
-            // Get user entity for response
-            User user = userDetailsService.getUserEntityByIdentifier(loginIdentifier);
+            User user = ((AuthenticatedUser) authentication.getPrincipal()).getUser();
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(user);
+            final String jwt = jwtUtil.generateToken(user, refreshToken.getSessionId());
 
             AuthResponse authResponse = new AuthResponse(
                     jwt,
+                    refreshToken.getRefreshToken(),
                     user.getEmail(),
                     user.getPhone(),
                     user.getFullName(),
                     user.getRole()
             );
 
-            System.out.println("✅ Login successful: " + user.getEmail());
+            logger.debug("Login successful: {}", user.getEmail());
+            recordOutcome("login", "success");
             return ResponseEntity.ok(authResponse);
 
         } catch (BadCredentialsException e) {
-            System.out.println("❌ Invalid credentials for: " + authRequest.getLoginIdentifier());
+            logger.info("Invalid credentials for: {}", authRequest.getLoginIdentifier());
+            recordOutcome("login", "invalid_credentials");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Error: Invalid credentials!");
         } catch (Exception e) {
-            System.out.println("❌ Login failed: " + e.getMessage());
+            logger.error("Login failed: {}", e.getMessage(), e);
+            recordOutcome("login", "error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: Authentication failed - " + e.getMessage());
         }
     }
 
+    // Both columns are unique; the database names the violated column in its error message
+    private String duplicateUserMessage(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (DUPLICATE_EMAIL.matcher(message).find()) {
+            return "Error: Email is already taken!";
+        }
+        if (DUPLICATE_PHONE.matcher(message).find()) {
+            return "Error: Phone number is already taken!";
+        }
+        return "Error: Email or phone number is already taken!";
+    }
+
+    // Request latency per endpoint is in http.server.requests; this counts what the attempts resulted in
+    private void recordOutcome(String action, String outcome) {
+        meterRegistry.counter("auth.attempts", "action", action, "outcome", outcome).increment();
+    }
+
     @GetMapping("/test")
     public String testAuth() {
         return "Authentication endpoint is working!";
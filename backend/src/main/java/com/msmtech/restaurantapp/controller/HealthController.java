@@ -1,22 +1,51 @@
 package com.msmtech.restaurantapp.controller;
 
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+// Same health groups as /actuator/health/readiness and /actuator/health/liveness, kept under /api for existing probes
 @RestController
 @RequestMapping("/api")
 public class HealthController {
 
+    private final HealthEndpoint healthEndpoint;
+
+    public HealthController(HealthEndpoint healthEndpoint) {
+        this.healthEndpoint = healthEndpoint;
+    }
+
+    // Readiness: database reachable, pool not saturated, menu cache loaded. 503 otherwise.
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> status = new HashMap<>();
-        status.put("status", "UP");
-        return ResponseEntity.ok(status);
+        return respond(healthEndpoint.healthForPath("readiness"));
     }
-}
 
+    // Liveness: the process is running and not broken; deliberately independent of the database
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        return respond(healthEndpoint.healthForPath("liveness"));
+    }
+
+    private ResponseEntity<Map<String, Object>> respond(HealthComponent health) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        Status status = health != null ? health.getStatus() : Status.UNKNOWN;
+        body.put("status", status.getCode());
+        if (health instanceof CompositeHealth composite && composite.getComponents() != null) {
+            Map<String, String> components = new LinkedHashMap<>();
+            composite.getComponents().forEach((name, component) -> components.put(name, component.getStatus().getCode()));
+            body.put("components", components);
+        }
+        HttpStatus httpStatus = Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus).body(body);
+    }
+}
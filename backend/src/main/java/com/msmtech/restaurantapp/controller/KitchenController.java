@@ -0,0 +1,41 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.msmtech.restaurantapp.dto.KitchenQueueResponse;
+import com.msmtech.restaurantapp.service.KitchenQueueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Staff only (see SecurityConfig)
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenController.class);
+
+    private final KitchenQueueService kitchenQueueService;
+
+    public KitchenController(KitchenQueueService kitchenQueueService) {
+        this.kitchenQueueService = kitchenQueueService;
+    }
+
+    // GET /api/kitchen/queue - Active orders, oldest first, served from memory
+    @GetMapping("/queue")
+    public ResponseEntity<KitchenQueueResponse> getQueue() {
+        return ResponseEntity.ok(kitchenQueueService.getQueue());
+    }
+
+    // GET /api/kitchen/queue/stream - Server-Sent Events with every change to the board after it was read
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueue(@AuthenticationPrincipal UserDetails userDetails) {
+        logger.info("Opening kitchen stream for user: {}", userDetails.getUsername());
+        return kitchenQueueService.subscribe(userDetails.getUsername());
+    }
+}
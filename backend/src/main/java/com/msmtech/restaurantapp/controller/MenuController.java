@@ -2,7 +2,13 @@ package com.msmtech.restaurantapp.controller;
 
 import com.msmtech.restaurantapp.entity.MenuItem;
 import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.service.MenuCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.annotation.PostConstruct;
@@ -16,6 +22,9 @@ public class MenuController {
     @Autowired
     private MenuRepository menuRepository;
 
+    @Autowired
+    private MenuCacheService menuCacheService;
+
     // Add this method to initialize sample data
     @PostConstruct
     public void initSampleData() {
@@ -34,13 +43,56 @@ public class MenuController {
         }
     }
 
+    // Both menu reads return bodies pre-rendered by the menu cache and answer 304 when the client's copy is current
     @GetMapping
-    public List<MenuItem> getAllMenuItems() {
-        return menuRepository.findAll();
+    public ResponseEntity<byte[]> getAllMenuItems(@RequestHeader HttpHeaders headers) {
+        return serve(menuCacheService.currentSnapshot().getRenderedAll(), headers);
     }
 
     @GetMapping("/category/{category}")
-    public List<MenuItem> getMenuItemsByCategory(@PathVariable String category) {
-        return menuRepository.findByCategory(category);
+    public ResponseEntity<byte[]> getMenuItemsByCategory(@PathVariable String category,
+                                                         @RequestHeader HttpHeaders headers) {
+        return serve(menuCacheService.currentSnapshot().getRenderedCategory(category), headers);
+    }
+
+    private ResponseEntity<byte[]> serve(MenuCacheService.RenderedBody body, HttpHeaders requestHeaders) {
+        boolean gzip = AcceptEncoding.acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? body.getGzipEtag() : body.getEtag();
+
+        // no-cache lets the browser keep the body but makes it revalidate, which is a tiny 304 while the menu is unchanged
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (matchesIfNoneMatch(requestHeaders.getIfNoneMatch(), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(response.build().getHeaders())
+                    .build();
+        }
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? body.getGzipped() : body.getJson());
+    }
+
+    // If-None-Match uses weak comparison (RFC 9110 13.1.2): a proxy that re-compresses the body may hand the
+    // client our tag as W/"...", and "*" matches any current representation
+    private static boolean matchesIfNoneMatch(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,42 @@
 package com.msmtech.restaurantapp.controller;
 
+import com.msmtech.restaurantapp.dto.OrderCursor;
+import com.msmtech.restaurantapp.dto.OrderPageResponse;
+import com.msmtech.restaurantapp.dto.OrderRequest;
 import com.msmtech.restaurantapp.dto.OrderResponse;
 import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
 import com.msmtech.restaurantapp.entity.User;
 import com.msmtech.restaurantapp.repository.OrderRepository;
 import com.msmtech.restaurantapp.repository.UserRepository;
+import com.msmtech.restaurantapp.service.OrderExportService;
+import com.msmtech.restaurantapp.service.OrderIdempotencyService;
+import com.msmtech.restaurantapp.service.OrderService;
+import com.msmtech.restaurantapp.service.OrderStatusStreamService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -25,48 +44,73 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    // Roles that see every order in the status stream
+    private static final Set<String> STAFF_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_STAFF");
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    // POST /api/orders - Create new order
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderStatusStreamService orderStatusStreamService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Value("${app.orders.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.orders.max-page-size:100}")
+    private int maxPageSize;
+
+    // POST /api/orders - Create new order. With an Idempotency-Key header, a retry returns the first response.
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody Order order,
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                          @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.badRequest()
+                    .body("Invalid order: " + IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
         try {
-            logger.debug("DEBUG ORDER CREATION");
-            logger.debug("Raw order createdAt: {}", order.getCreatedAt());
-            logger.debug("Is createdAt null? {}", (order.getCreatedAt() == null));
-
-            // Rest of your code...
-            if (userDetails != null) {
-                String userEmail = userDetails.getUsername();
-                Optional<User> userOptional = userRepository.findByEmail(userEmail);
-
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
-                    order.setUser(user);
-                    logger.info("Associated order with user: {} (ID: {})", user.getEmail(), user.getId());
-                } else {
-                    logger.warn("User not found for email: {}", userEmail);
-                }
+            if (idempotencyKey == null) {
+                OrderResponse response = orderService.createOrder(orderRequest, userDetails);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
             }
 
-            // Also set customer email from authenticated user
-            if (userDetails != null && order.getCustomerEmail() == null) {
-                order.setCustomerEmail(userDetails.getUsername());
+            OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, orderRequest, userDetails);
+            if (result.isReplayed()) {
+                logger.info("Replayed order {} for repeated idempotency key", result.getResponse().getId());
             }
-
-            Order savedOrder = orderRepository.save(order);
-            logger.info("Order created successfully: {}", savedOrder.getId());
-            logger.debug("Final createdAt: {}", savedOrder.getCreatedAt());
-
-            OrderResponse response = new OrderResponse(savedOrder);
-            logger.debug("FRONTEND RESPONSE DEBUG - createdAt: {} / raw: {}", response.getCreatedAt(), savedOrder.getCreatedAt());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                    .body(result.getResponse());
+
+        } catch (OrderService.UnavailableMenuItemException e) {
+            logger.warn("Rejected order: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body("Invalid order: menu items no longer available: " + e.getMenuItemIds());
+        } catch (OrderIdempotencyService.IdempotencyKeyReusedException e) {
+            logger.warn("Rejected order: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("Invalid order: " + e.getMessage());
+        } catch (OrderIdempotencyService.IdempotencyKeyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error creating order: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -74,22 +118,38 @@ public class OrderController {
         }
     }
 
-    // GET /api/orders - Get all orders (for admin, or remove if not needed)
+    // Invalid order requests: answer with the field messages instead of a bare 400
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<String> handleInvalidOrder(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        logger.warn("Rejected order request: {}", message);
+        return ResponseEntity.badRequest().body("Invalid order: " + message);
+    }
+
+    // GET /api/orders - Get all orders (for admin, or remove if not needed), newest first, one page at a time
     @GetMapping
-    public ResponseEntity<?> getAllOrders(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @AuthenticationPrincipal UserDetails userDetails) {
         logger.info("Fetching all orders for user: {}",
                 (userDetails != null ? userDetails.getUsername() : "unknown"));
 
         // For now, return all orders. You might want to restrict this to admin users
-        List<OrderResponse> orders = orderRepository.findAll().stream()
-                .map(OrderResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(orders);
+        try {
+            return ResponseEntity.ok(fetchPage(cursor, size, orderRepository::findPage));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected orders page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    // GET /api/orders/my-orders - Get orders for current authenticated user
+    // GET /api/orders/my-orders - Get orders for current authenticated user, newest first, one page at a time
     @GetMapping("/my-orders")
-    public ResponseEntity<?> getMyOrders(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getMyOrders(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
         }
@@ -98,56 +158,14 @@ public class OrderController {
         logger.info("Fetching orders for authenticated user: {}", userEmail);
 
         try {
-            // Get user ID first
-            Optional<User> userOptional = userRepository.findByEmail(userEmail);
-            if (userOptional.isEmpty()) {
-                return ResponseEntity.ok(Collections.emptyList());
-            }
-
-            Long userId = userOptional.get().getId();
-            logger.debug("User ID: {}", userId);
-
-            // Try multiple approaches to find orders
-            logger.debug("Attempt 1: Finding orders by user ID: {}", userId);
-            List<Order> ordersByUserId = orderRepository.findByUserId(userId);
-            logger.debug("Orders found by user ID: {}", ordersByUserId.size());
-
-            logger.debug("Attempt 2: Finding orders by user email: {}", userEmail);
-            List<Order> ordersByUserEmail = orderRepository.findByUserEmail(userEmail);
-            logger.debug("Orders found by user email: {}", ordersByUserEmail.size());
-
-            logger.debug("Attempt 3: Finding orders by customer email: {}", userEmail);
-            List<Order> ordersByCustomerEmail = orderRepository.findByCustomerEmail(userEmail);
-            logger.debug("Orders found by customer email: {}", ordersByCustomerEmail.size());
-
-            // Combine all results
-            List<Order> allUserOrders = new ArrayList<>();
-            allUserOrders.addAll(ordersByUserId);
-            allUserOrders.addAll(ordersByUserEmail);
-            allUserOrders.addAll(ordersByCustomerEmail);
-
-            // Remove duplicates by ID
-            List<Order> uniqueOrders = allUserOrders.stream()
-                    .collect(Collectors.toMap(Order::getId, Function.identity(), (existing, replacement) -> existing))
-                    .values()
-                    .stream()
-                    .sorted((o1, o2) -> o2.getCreatedAt().compareTo(o1.getCreatedAt()))
-                    .collect(Collectors.toList());
-
-            logger.info("Final unique orders for user: {}", uniqueOrders.size());
-
-            List<OrderResponse> orderResponses = uniqueOrders.stream()
-                    .map(order -> {
-                        // Debug each order's date
-                        logger.debug("Order #{} createdAt: {}", order.getId(), order.getCreatedAt());
-                        OrderResponse response = new OrderResponse(order);
-                        logger.debug("Order #{} response createdAt: {}", order.getId(), response.getCreatedAt());
-                        return response;
-                    })
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(orderResponses);
+            OrderPageResponse page = fetchPage(cursor, size, (createdAt, id, limit) ->
+                    orderRepository.findOwnedPage(userEmail, createdAt, id, limit));
+            logger.debug("Returning {} orders for user: {}", page.getItems().size(), userEmail);
+            return ResponseEntity.ok(page);
 
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected my-orders request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching user orders: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -158,6 +176,8 @@ public class OrderController {
     // GET /api/orders/user/email/{email} - Get orders by user email
     @GetMapping("/user/email/{email}")
     public ResponseEntity<?> getOrdersByUserEmail(@PathVariable String email,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
                                                   @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
@@ -172,10 +192,11 @@ public class OrderController {
 
         logger.info("Fetching orders for user email: {}", email);
         try {
-            List<OrderResponse> orders = orderRepository.findByUserEmail(email).stream()
-                    .map(OrderResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(fetchPage(cursor, size, (createdAt, id, limit) ->
+                    orderRepository.findPageByUserEmail(email, createdAt, id, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected orders page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching orders by email: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -186,6 +207,8 @@ public class OrderController {
     // GET /api/orders/user/phone/{phone} - Get orders by user phone
     @GetMapping("/user/phone/{phone}")
     public ResponseEntity<?> getOrdersByUserPhone(@PathVariable String phone,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
                                                   @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
@@ -193,10 +216,11 @@ public class OrderController {
 
         logger.info("Fetching orders for user phone: {}", phone);
         try {
-            List<OrderResponse> orders = orderRepository.findByUserPhone(phone).stream()
-                    .map(OrderResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(fetchPage(cursor, size, (createdAt, id, limit) ->
+                    orderRepository.findPageByUserPhone(phone, createdAt, id, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected orders page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching orders by phone: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -207,6 +231,8 @@ public class OrderController {
     // GET /api/orders/user/{userId} - Get orders by user ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getOrdersByUserId(@PathVariable Long userId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
                                                @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
@@ -214,10 +240,11 @@ public class OrderController {
 
         logger.info("Fetching orders for user ID: {}", userId);
         try {
-            List<OrderResponse> orders = orderRepository.findByUserId(userId).stream()
-                    .map(OrderResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(fetchPage(cursor, size, (createdAt, id, limit) ->
+                    orderRepository.findPageByUserId(userId, createdAt, id, limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected orders page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching orders by user ID: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -225,6 +252,99 @@ public class OrderController {
         }
     }
 
+    // One of the OrderRepository keyset page queries
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Order> find(LocalDateTime createdAt, Long id, int limit);
+    }
+
+    private OrderPageResponse fetchPage(String cursor, Integer size, PageQuery query) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        // Ask for one extra row to know whether another page exists
+        List<Order> orders = query.find(position.getCreatedAt(), position.getId(), pageSize + 1);
+        return toPage(orders, pageSize);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Trims the look-ahead row and turns the last order of the page into the next cursor
+    private OrderPageResponse toPage(List<Order> orders, int pageSize) {
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> pageOrders = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasMore ? OrderCursor.after(pageOrders.get(pageSize - 1)).encode() : null;
+        return new OrderPageResponse(pageOrders, nextCursor);
+    }
+
+    // GET /api/orders/export?format=csv&from=...&to=... - Staff only. Every order created in [from, to), oldest first,
+    // as CSV or NDJSON. The rows are streamed straight from the database, gzipped when the client accepts it.
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid format: " + format + " (csv or ndjson)");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().body("Invalid range: from must be before to");
+        }
+
+        logger.info("Exporting orders from {} to {} as {} for user: {}", from, to, exportFormat,
+                (userDetails != null ? userDetails.getUsername() : "unknown"));
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        try {
+            orderExportService.export(exportFormat, from, to, () -> {
+                response.setContentType(exportFormat.getContentType());
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + exportFormat.getExtension())
+                        .build()
+                        .toString());
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (!gzip) {
+                    return response.getOutputStream();
+                }
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return new GZIPOutputStream(response.getOutputStream(), 8192);
+            });
+        } catch (OrderExportService.ExportBusyException e) {
+            logger.warn("Rejected order export: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Error: " + e.getMessage() + ", try again later!");
+        }
+        // The body has been written to the response
+        return null;
+    }
+
+    // GET /api/orders/stream - Server-Sent Events with status changes of the caller's orders (all orders for staff)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderStatus(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        boolean staff = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> STAFF_AUTHORITIES.contains(authority.getAuthority()));
+        logger.info("Opening order status stream for user: {} (staff={})", userDetails.getUsername(), staff);
+        return ResponseEntity.ok(orderStatusStreamService.subscribe(userDetails.getUsername(), staff));
+    }
+
     // GET /api/orders/{id} - Get specific order
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrder(@PathVariable Long id,
@@ -235,14 +355,16 @@ public class OrderController {
 
         logger.info("Fetching order: {} for user: {}", id, userDetails.getUsername());
         Optional<Order> order = orderRepository.findById(id);
-        return order.map(o -> ResponseEntity.ok(new OrderResponse(o)))
+        return order.map(o -> ResponseEntity.ok().eTag(String.valueOf(o.getVersion())).body(new OrderResponse(o)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // PUT /api/orders/{id}/status - Update order status
+    // PUT /api/orders/{id}/status - Update order status.
+    // Send the order's version as If-Match to refuse the change when someone else changed the order first.
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long id,
                                                @RequestBody String newStatus,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
@@ -250,20 +372,44 @@ public class OrderController {
 
         logger.info("Updating order {} status to: {} by user: {}", id, newStatus, userDetails.getUsername());
 
-        Optional<Order> orderOptional = orderRepository.findById(id);
+        OrderStatus status;
+        Long expectedVersion;
+        try {
+            status = OrderStatus.parse(newStatus);
+            expectedVersion = parseVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Status update failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Invalid status: " + e.getMessage());
+        }
 
-        if (orderOptional.isEmpty()) {
+        try {
+            OrderResponse response = orderService.updateStatus(id, status, expectedVersion);
+            return ResponseEntity.ok().eTag(String.valueOf(response.getVersion())).body(response);
+        } catch (OrderService.OrderNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (OrderService.StaleOrderException e) {
+            logger.warn("Status update failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OrderService.InvalidStatusTransitionException e) {
+            logger.warn("Status update failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid status: " + e.getMessage());
         }
+    }
 
-        Order order = orderOptional.get();
+    // Accepts 3, "3" and W/"3"
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
         try {
-            order.updateStatus(newStatus);
-            Order updatedOrder = orderRepository.save(order);
-            return ResponseEntity.ok(new OrderResponse(updatedOrder));
-        } catch (IllegalArgumentException e) {
-            logger.warn("Status update failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body("Invalid status: " + e.getMessage());
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be an order version, got " + ifMatch);
         }
     }
 
@@ -2,6 +2,7 @@ package com.msmtech.restaurantapp.dto;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private String email;
     private String phone;
@@ -18,10 +19,18 @@ public class AuthResponse {
         this.role = role;
     }
 
+    public AuthResponse(String token, String refreshToken, String email, String phone, String fullName, String role) {
+        this(token, email, phone, fullName, role);
+        this.refreshToken = refreshToken;
+    }
+
     // Getters and Setters
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
 
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
 
@@ -41,6 +50,7 @@ public class AuthResponse {
     public String toString() {
         return "AuthResponse{" +
                 "token='[HIDDEN]'" +
+                ", refreshToken='[HIDDEN]'" +
                 ", type='" + type + '\'' +
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
@@ -0,0 +1,52 @@
+package com.msmtech.restaurantapp.dto;
+
+import java.util.List;
+
+// An active order as shown on the kitchen board; immutable so the queue can hand it out without copying
+public class KitchenOrder {
+    private final Long id;
+    private final String status;
+    private final Long version;
+    private final String createdAt;
+    private final String customerName;
+    private final String deliveryAddress;
+    private final String specialInstructions;
+    private final List<OrderItemResponse> items;
+
+    public KitchenOrder(OrderResponse order) {
+        this(order.getId(), order.getStatus(), order.getVersion(), order.getCreatedAt(), order.getCustomerName(),
+                order.getDeliveryAddress(), order.getSpecialInstructions(), List.copyOf(order.getItems()));
+    }
+
+    private KitchenOrder(Long id, String status, Long version, String createdAt, String customerName,
+                         String deliveryAddress, String specialInstructions, List<OrderItemResponse> items) {
+        this.id = id;
+        this.status = status;
+        this.version = version;
+        this.createdAt = createdAt;
+        this.customerName = customerName;
+        this.deliveryAddress = deliveryAddress;
+        this.specialInstructions = specialInstructions;
+        this.items = items;
+    }
+
+    public KitchenOrder withStatus(String newStatus, Long newVersion) {
+        return new KitchenOrder(id, newStatus, newVersion, createdAt, customerName, deliveryAddress, specialInstructions, items);
+    }
+
+    public Long getId() { return id; }
+
+    public String getStatus() { return status; }
+
+    public Long getVersion() { return version; }
+
+    public String getCreatedAt() { return createdAt; }
+
+    public String getCustomerName() { return customerName; }
+
+    public String getDeliveryAddress() { return deliveryAddress; }
+
+    public String getSpecialInstructions() { return specialInstructions; }
+
+    public List<OrderItemResponse> getItems() { return items; }
+}
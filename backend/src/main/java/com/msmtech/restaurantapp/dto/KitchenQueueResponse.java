@@ -0,0 +1,18 @@
+package com.msmtech.restaurantapp.dto;
+
+import java.util.List;
+
+// The kitchen board at one point: apply stream deltas with a higher sequence on top of it
+public class KitchenQueueResponse {
+    private final long sequence;
+    private final List<KitchenOrder> orders;
+
+    public KitchenQueueResponse(long sequence, List<KitchenOrder> orders) {
+        this.sequence = sequence;
+        this.orders = orders;
+    }
+
+    public long getSequence() { return sequence; }
+
+    public List<KitchenOrder> getOrders() { return orders; }
+}
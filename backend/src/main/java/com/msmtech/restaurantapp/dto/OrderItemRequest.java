@@ -7,19 +7,21 @@ public class OrderItemRequest {
     @NotNull(message = "Menu item ID is required")
     private Long menuItemId;
 
+    // Name and price are what the client displayed; the order is priced from the current menu
+    private String menuItemName;
+
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
 
-    @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
     private Double price;
 
     // Constructors
     public OrderItemRequest() {}
 
-    public OrderItemRequest(Long menuItemId, Integer quantity, Double price) {
+    public OrderItemRequest(Long menuItemId, String menuItemName, Integer quantity, Double price) {
         this.menuItemId = menuItemId;
+        this.menuItemName = menuItemName;
         this.quantity = quantity;
         this.price = price;
     }
@@ -28,6 +30,9 @@ public class OrderItemRequest {
     public Long getMenuItemId() { return menuItemId; }
     public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
 
+    public String getMenuItemName() { return menuItemName; }
+    public void setMenuItemName(String menuItemName) { this.menuItemName = menuItemName; }
+
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
 
@@ -0,0 +1,101 @@
+package com.msmtech.restaurantapp.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderItem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an {@link Order} entity as the same JSON as {@link OrderResponse}, straight to the generator: no
+ * response objects, no item list copy, no reflection over getters, and field names encoded once.
+ * Endpoints opt in on a collection of orders with {@code @JsonSerialize(contentUsing = OrderJsonSerializer.class)},
+ * as {@link OrderPageResponse} does; the order and its items must already be loaded.
+ */
+public class OrderJsonSerializer extends StdSerializer<Order> {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CUSTOMER_NAME = new SerializedString("customerName");
+    private static final SerializedString CUSTOMER_PHONE = new SerializedString("customerPhone");
+    private static final SerializedString DELIVERY_ADDRESS = new SerializedString("deliveryAddress");
+    private static final SerializedString SPECIAL_INSTRUCTIONS = new SerializedString("specialInstructions");
+    private static final SerializedString TOTAL_AMOUNT = new SerializedString("totalAmount");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString MENU_ITEM_ID = new SerializedString("menuItemId");
+    private static final SerializedString MENU_ITEM_NAME = new SerializedString("menuItemName");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString ITEM_TOTAL = new SerializedString("itemTotal");
+
+    public OrderJsonSerializer() {
+        super(Order.class);
+    }
+
+    @Override
+    public void serialize(Order order, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(order);
+        writeNumber(generator, ID, order.getId());
+        writeString(generator, CUSTOMER_NAME, order.getCustomerName());
+        writeString(generator, CUSTOMER_PHONE, order.getCustomerPhone());
+        writeString(generator, DELIVERY_ADDRESS, order.getDeliveryAddress());
+        writeString(generator, SPECIAL_INSTRUCTIONS, order.getSpecialInstructions());
+        writeNumber(generator, TOTAL_AMOUNT, order.getTotalAmount());
+        writeString(generator, STATUS, order.getStatus().name());
+        writeNumber(generator, VERSION, order.getVersion());
+        LocalDateTime createdAt = order.getCreatedAt();
+        writeString(generator, CREATED_AT, createdAt != null ? DATE_FORMATTER.format(createdAt) : null);
+
+        generator.writeFieldName(ITEMS);
+        generator.writeStartArray();
+        for (OrderItem item : order.getItems()) {
+            generator.writeStartObject();
+            writeNumber(generator, ID, item.getId());
+            writeNumber(generator, MENU_ITEM_ID, item.getMenuItemId());
+            writeString(generator, MENU_ITEM_NAME, item.getMenuItemName());
+            generator.writeFieldName(QUANTITY);
+            if (item.getQuantity() != null) {
+                generator.writeNumber(item.getQuantity());
+            } else {
+                generator.writeNull();
+            }
+            writeNumber(generator, PRICE, item.getPrice());
+            writeNumber(generator, ITEM_TOTAL, item.getItemTotal());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString name, Double value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.msmtech.restaurantapp.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.msmtech.restaurantapp.entity.Order;
+
+import java.util.List;
+
+// Orders are written straight from the entities (same JSON as OrderResponse), so a page builds no response objects
+public class OrderPageResponse {
+    @JsonSerialize(contentUsing = OrderJsonSerializer.class)
+    private List<Order> items;
+    private String nextCursor; // null when this is the last page
+
+    public OrderPageResponse(List<Order> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Order> getItems() { return items; }
+    public void setItems(List<Order> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,19 +1,27 @@
 package com.msmtech.restaurantapp.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import java.util.List;
 
 public class OrderRequest {
 
+    @Valid
     @NotEmpty(message = "Order items cannot be empty")
     private List<OrderItemRequest> items;
 
-    @NotBlank(message = "Delivery address is required")
+    @NotBlank(message = "Customer name is required")
+    private String customerName;
+
+    @NotBlank(message = "Customer phone is required")
+    private String customerPhone;
+
+    // Optional: the order form lets customers leave it empty
     private String deliveryAddress;
 
     private String specialInstructions;
 
-    @NotNull(message = "Total amount is required")
+    // What the client displayed; the stored total is always computed from the items
     @DecimalMin(value = "0.0", inclusive = false, message = "Total amount must be greater than 0")
     private Double totalAmount;
 
@@ -31,6 +39,12 @@ public class OrderRequest {
     public List<OrderItemRequest> getItems() { return items; }
     public void setItems(List<OrderItemRequest> items) { this.items = items; }
 
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public String getCustomerPhone() { return customerPhone; }
+    public void setCustomerPhone(String customerPhone) { this.customerPhone = customerPhone; }
+
     public String getDeliveryAddress() { return deliveryAddress; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
 
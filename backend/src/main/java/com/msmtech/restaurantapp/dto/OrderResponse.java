@@ -9,6 +9,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class OrderResponse {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
     private Long id;
     private String customerName;
     private String customerPhone;
@@ -16,6 +18,7 @@ public class OrderResponse {
     private String specialInstructions;
     private Double totalAmount;
     private String status;
+    private Long version; // send back as If-Match when changing the status
     private String createdAt; // Change to String for consistent formatting
     private List<OrderItemResponse> items;
 
@@ -26,7 +29,8 @@ public class OrderResponse {
         this.deliveryAddress = order.getDeliveryAddress();
         this.specialInstructions = order.getSpecialInstructions();
         this.totalAmount = order.getTotalAmount();
-        this.status = order.getStatus();
+        this.status = order.getStatus().name();
+        this.version = order.getVersion();
 
         // Format the date consistently
         // Format the date consistently
@@ -42,8 +46,7 @@ public class OrderResponse {
             return null;
         }
         // Use ISO format that JavaScript can parse easily
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-        return dateTime.format(formatter);
+        return DATE_FORMATTER.format(dateTime);
     }
 
 
@@ -70,6 +73,9 @@ public class OrderResponse {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,63 @@
+package com.msmtech.restaurantapp.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Which order an Idempotency-Key produced; written in the same transaction as the order
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    // SHA-256 of the owner and the client's key, base64url without padding
+    @Id
+    @Column(name = "key_hash", length = 43)
+    private String keyHash;
+
+    // SHA-256 of the request body, to refuse a key reused for a different order
+    @Column(name = "request_hash", nullable = false, length = 43)
+    private String requestHash;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Assigned ids: tell Spring Data this is an insert, so save() does not SELECT first
+    @Transient
+    private boolean isNew = true;
+
+    // JPA requires default constructor
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String keyHash, String requestHash) {
+        this.keyHash = keyHash;
+        this.requestHash = requestHash;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return keyHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getKeyHash() { return keyHash; }
+
+    public String getRequestHash() { return requestHash; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
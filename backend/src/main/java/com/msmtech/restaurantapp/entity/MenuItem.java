@@ -5,6 +5,7 @@ import jakarta.validation.constraints.*;
 
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(MenuItemListener.class)
 public class MenuItem {
 
     @Id
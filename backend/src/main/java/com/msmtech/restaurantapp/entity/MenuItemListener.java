@@ -0,0 +1,26 @@
+package com.msmtech.restaurantapp.entity;
+
+import com.msmtech.restaurantapp.event.MenuItemChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Hibernate resolves entity listeners through Spring, so this can publish application events
+@Component
+public class MenuItemListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MenuItemListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(MenuItem menuItem) {
+        eventPublisher.publishEvent(new MenuItemChangedEvent(menuItem.getId()));
+    }
+}
@@ -4,6 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,8 +16,10 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
 
+    // Pooled sequence ids: one nextval reserves 50 ids, and inserts can be JDBC-batched (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,9 +40,16 @@ public class Order {
     @Column(name = "total_amount", nullable = false)
     private Double totalAmount = 0.0;
 
-    @NotBlank
+    @NotNull
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
-    private String status = "PENDING";
+    private OrderStatus status = OrderStatus.PENDING;
+
+    // Optimistic locking: bumped by every update, including OrderRepository's conditional status updates
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -61,7 +74,7 @@ public class Order {
             createdAt = LocalDateTime.now();
         }
         if (status == null) {
-            status = "PENDING";
+            status = OrderStatus.PENDING;
         }
         // Let calculateTotal() handle totalAmount in @PreUpdate
     }
@@ -101,8 +114,10 @@ public class Order {
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public Long getVersion() { return version; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) {
@@ -144,9 +159,11 @@ public class Order {
         if (items == null || items.isEmpty()) {
             return 0.0;
         }
-        return items.stream()
-                .mapToDouble(OrderItem::getItemTotal)
-                .sum();
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            total = total.add(item.getLineTotal());
+        }
+        return total.setScale(2, RoundingMode.HALF_UP).doubleValue();
     }
 
     public void addItem(OrderItem item) {
@@ -161,10 +178,9 @@ public class Order {
         calculateTotal();
     }
 
-    public void updateStatus(String newStatus) {
-        List<String> validStatuses = List.of("PENDING", "CONFIRMED", "PREPARING", "COMPLETED", "CANCELLED");
-        if (!validStatuses.contains(newStatus)) {
-            throw new IllegalArgumentException("Invalid status: " + newStatus);
+    public void updateStatus(OrderStatus newStatus) {
+        if (!status.canTransitionTo(newStatus)) {
+            throw new IllegalStateException("Cannot change order from " + status + " to " + newStatus);
         }
         this.status = newStatus;
     }
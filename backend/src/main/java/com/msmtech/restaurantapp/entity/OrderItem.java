@@ -4,12 +4,16 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
+import java.math.BigDecimal;
+
 @Entity
 @Table(name = "order_items")
 public class OrderItem {
 
+    // Pooled like Order ids, so all items of an order go out in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -25,6 +29,10 @@ public class OrderItem {
     @Column(name = "menu_item_name", nullable = false, length = 100)
     private String menuItemName;
 
+    // Menu category when the order was placed, kept like the name and price; null on items from before it was recorded
+    @Column(length = 50)
+    private String category;
+
     @NotNull
     @Min(1)
     @Column(nullable = false)
@@ -45,8 +53,27 @@ public class OrderItem {
         this.price = price;
     }
 
+    // Up to these bounds the product in cents fits a double exactly (at most 10^14, below 2^53)
+    private static final long MAX_EXACT_CENTS = 100_000_000L;
+    private static final int MAX_EXACT_QUANTITY = 1_000_000;
+
+    /**
+     * {@link #getLineTotal()} as a double. Prices in whole cents up to 1,000,000.00 are turned into their
+     * decimal value exactly by {@link BigDecimal#valueOf(double)}, so for those the product is computed in
+     * integer cents and rounded once; this skips the double-to-string conversion in the per-item listing path.
+     */
     public Double getItemTotal() {
-        return price * quantity;
+        long cents = Math.round(price * 100);
+        if (cents >= 0 && cents <= MAX_EXACT_CENTS && cents / 100.0 == price
+                && quantity >= 0 && quantity <= MAX_EXACT_QUANTITY) {
+            return (cents * quantity) / 100.0;
+        }
+        return getLineTotal().doubleValue();
+    }
+
+    // Exact price * quantity; prices are stored as doubles but summed in decimal so totals do not drift
+    public BigDecimal getLineTotal() {
+        return BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantity));
     }
 
     // Getters and Setters
@@ -62,6 +89,9 @@ public class OrderItem {
     public String getMenuItemName() { return menuItemName; }
     public void setMenuItemName(String menuItemName) { this.menuItemName = menuItemName; }
 
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
 
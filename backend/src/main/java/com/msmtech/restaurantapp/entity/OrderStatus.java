@@ -0,0 +1,72 @@
+package com.msmtech.restaurantapp.entity;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order lifecycle. An order moves forward through the kitchen and may be cancelled until it is completed;
+ * COMPLETED and CANCELLED are final.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    PREPARING,
+    COMPLETED,
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> NEXT = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREVIOUS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        NEXT.put(PENDING, EnumSet.of(CONFIRMED, PREPARING, CANCELLED));
+        NEXT.put(CONFIRMED, EnumSet.of(PREPARING, CANCELLED));
+        NEXT.put(PREPARING, EnumSet.of(COMPLETED, CANCELLED));
+        NEXT.put(COMPLETED, EnumSet.noneOf(OrderStatus.class));
+        NEXT.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus status : values()) {
+            PREVIOUS.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        NEXT.forEach((from, targets) -> targets.forEach(to -> PREVIOUS.get(to).add(from)));
+        NEXT.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        PREVIOUS.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    // Statuses an order may be in to move to this one
+    public Set<OrderStatus> previousStatuses() {
+        return PREVIOUS.get(this);
+    }
+
+    // Still on the kitchen board
+    public boolean isActive() {
+        return this == PENDING || this == CONFIRMED || this == PREPARING;
+    }
+
+    /**
+     * Parses a status name, also when it arrives as a JSON string ({@code "CONFIRMED"} with quotes).
+     *
+     * @throws IllegalArgumentException if it names no status
+     */
+    public static OrderStatus parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        String name = value.trim();
+        if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+            name = name.substring(1, name.length() - 1).trim();
+        }
+        for (OrderStatus status : values()) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status " + name);
+    }
+}
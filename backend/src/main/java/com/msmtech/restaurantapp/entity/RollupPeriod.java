@@ -0,0 +1,33 @@
+package com.msmtech.restaurantapp.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket size of the sales rollups. Buckets start at the server's local time, like order timestamps.
+ */
+public enum RollupPeriod {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupPeriod(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Start of the bucket the time falls into
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    // First bucket that starts at or after the time
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime start = truncate(time);
+        return start.equals(time) ? start : next(start);
+    }
+}
@@ -0,0 +1,80 @@
+package com.msmtech.restaurantapp.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Sales of one menu category in one hour or day. Written only by the upserts in SalesCategoryRollupRepository.
+@Entity
+@Immutable
+@Table(name = "sales_category_rollups")
+@IdClass(SalesCategoryRollup.Key.class)
+public class SalesCategoryRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 4)
+    private RollupPeriod period;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(length = 50)
+    private String category;
+
+    // Orders with at least one item of the category
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // JPA requires default constructor
+    public SalesCategoryRollup() {}
+
+    public RollupPeriod getPeriod() { return period; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+
+    public String getCategory() { return category; }
+
+    public long getOrderCount() { return orderCount; }
+
+    public long getQuantity() { return quantity; }
+
+    public BigDecimal getRevenue() { return revenue; }
+
+    public static class Key implements Serializable {
+        private RollupPeriod period;
+        private LocalDateTime bucketStart;
+        private String category;
+
+        public Key() {}
+
+        public Key(RollupPeriod period, LocalDateTime bucketStart, String category) {
+            this.period = period;
+            this.bucketStart = bucketStart;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && period == other.period && Objects.equals(bucketStart, other.bucketStart)
+                    && Objects.equals(category, other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(period, bucketStart, category);
+        }
+    }
+}
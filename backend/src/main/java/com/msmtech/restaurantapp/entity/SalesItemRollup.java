@@ -0,0 +1,91 @@
+package com.msmtech.restaurantapp.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Sales of one menu item in one hour or day. Written only by the upserts in SalesItemRollupRepository.
+@Entity
+@Immutable
+@Table(name = "sales_item_rollups")
+@IdClass(SalesItemRollup.Key.class)
+public class SalesItemRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 4)
+    private RollupPeriod period;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
+    // Name and category as of the first sale in the bucket
+    @Column(name = "menu_item_name", nullable = false, length = 100)
+    private String menuItemName;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    // Orders that contained the item
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // JPA requires default constructor
+    public SalesItemRollup() {}
+
+    public RollupPeriod getPeriod() { return period; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+
+    public Long getMenuItemId() { return menuItemId; }
+
+    public String getMenuItemName() { return menuItemName; }
+
+    public String getCategory() { return category; }
+
+    public long getOrderCount() { return orderCount; }
+
+    public long getQuantity() { return quantity; }
+
+    public BigDecimal getRevenue() { return revenue; }
+
+    public static class Key implements Serializable {
+        private RollupPeriod period;
+        private LocalDateTime bucketStart;
+        private Long menuItemId;
+
+        public Key() {}
+
+        public Key(RollupPeriod period, LocalDateTime bucketStart, Long menuItemId) {
+            this.period = period;
+            this.bucketStart = bucketStart;
+            this.menuItemId = menuItemId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && period == other.period && Objects.equals(bucketStart, other.bucketStart)
+                    && Objects.equals(menuItemId, other.menuItemId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(period, bucketStart, menuItemId);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.msmtech.restaurantapp.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Orders, items sold and revenue of one hour or day. Written only by the upserts in SalesRollupRepository.
+@Entity
+@Immutable
+@Table(name = "sales_rollups")
+@IdClass(SalesRollup.Key.class)
+public class SalesRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 4)
+    private RollupPeriod period;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // JPA requires default constructor
+    public SalesRollup() {}
+
+    public RollupPeriod getPeriod() { return period; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+
+    public long getOrderCount() { return orderCount; }
+
+    public long getItemQuantity() { return itemQuantity; }
+
+    public BigDecimal getRevenue() { return revenue; }
+
+    public static class Key implements Serializable {
+        private RollupPeriod period;
+        private LocalDateTime bucketStart;
+
+        public Key() {}
+
+        public Key(RollupPeriod period, LocalDateTime bucketStart) {
+            this.period = period;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && period == other.period && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(period, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.msmtech.restaurantapp.event;
+
+/**
+ * Published whenever a menu item is inserted, updated or deleted.
+ * Listeners that care about committed data should use {@code @TransactionalEventListener}.
+ */
+public class MenuItemChangedEvent {
+
+    private final Long menuItemId;
+
+    public MenuItemChangedEvent(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public Long getMenuItemId() { return menuItemId; }
+}
@@ -0,0 +1,24 @@
+package com.msmtech.restaurantapp.event;
+
+import com.msmtech.restaurantapp.dto.OrderResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a new order has been saved; listeners run after the transaction commits.
+ * Carries the response already built for the client, so listeners need no query.
+ */
+public class OrderCreatedEvent {
+
+    private final OrderResponse order;
+    private final LocalDateTime createdAt;
+
+    public OrderCreatedEvent(OrderResponse order, LocalDateTime createdAt) {
+        this.order = order;
+        this.createdAt = createdAt;
+    }
+
+    public OrderResponse getOrder() { return order; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,52 @@
+package com.msmtech.restaurantapp.event;
+
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after an order's status has been changed and saved.
+ * Carries only what subscribers need, so it can outlive the persistence context.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final OrderStatus status;
+    private final Long version;
+    private final String userEmail;     // email of the linked user account, may be null
+    private final String customerEmail; // email stored on the order itself, may be null
+    private final LocalDateTime changedAt;
+
+    public OrderStatusChangedEvent(Long orderId, OrderStatus status, Long version, String userEmail, String customerEmail,
+                                   LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.version = version;
+        this.userEmail = userEmail;
+        this.customerEmail = customerEmail;
+        this.changedAt = changedAt;
+    }
+
+    public static OrderStatusChangedEvent of(Order order) {
+        return new OrderStatusChangedEvent(
+                order.getId(),
+                order.getStatus(),
+                order.getVersion(),
+                order.getUser() != null ? order.getUser().getEmail() : null,
+                order.getCustomerEmail(),
+                LocalDateTime.now());
+    }
+
+    public Long getOrderId() { return orderId; }
+
+    public OrderStatus getStatus() { return status; }
+
+    public Long getVersion() { return version; }
+
+    public String getUserEmail() { return userEmail; }
+
+    public String getCustomerEmail() { return customerEmail; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
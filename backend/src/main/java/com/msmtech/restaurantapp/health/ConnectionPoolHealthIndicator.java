@@ -0,0 +1,100 @@
+package com.msmtech.restaurantapp.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Connection pool headroom for the readiness probe. Reads the pool's in-memory counters only, no query.
+ * When more requests are already queued for a connection than {@code app.health.pool.max-waiting}
+ * (by default the pool size), new traffic would only wait out the connection timeout, so the instance
+ * reports OUT_OF_SERVICE until the queue drains. With a read replica configured, both pools are checked.
+ */
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+
+    // Negative means "as many as the pool has connections"
+    @Value("${app.health.pool.max-waiting:-1}")
+    private int maxWaiting;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, HikariDataSource> pools;
+        try {
+            pools = findPools();
+        } catch (SQLException e) {
+            return Health.unknown().withException(e).build();
+        }
+        if (pools.isEmpty()) {
+            return Health.unknown().withDetail("reason", "Not a Hikari pool").build();
+        }
+        if (pools.size() == 1) {
+            return poolHealth(pools.values().iterator().next());
+        }
+
+        // Primary and replica: out of service when either is, details per pool
+        Health.Builder builder = Health.up();
+        for (Map.Entry<String, HikariDataSource> pool : pools.entrySet()) {
+            Health health = poolHealth(pool.getValue());
+            if (Status.OUT_OF_SERVICE.equals(health.getStatus())) {
+                builder.outOfService();
+            }
+            builder.withDetail(pool.getKey(), health.getDetails().isEmpty() ? health.getStatus() : health.getDetails());
+        }
+        return builder.build();
+    }
+
+    // One pool, or every pool behind the read-replica routing DataSource
+    private Map<String, HikariDataSource> findPools() throws SQLException {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        if (dataSource.isWrapperFor(AbstractRoutingDataSource.class)) {
+            AbstractRoutingDataSource routing = dataSource.unwrap(AbstractRoutingDataSource.class);
+            for (Map.Entry<Object, DataSource> target : routing.getResolvedDataSources().entrySet()) {
+                if (target.getValue().isWrapperFor(HikariDataSource.class)) {
+                    pools.put(target.getKey().toString().toLowerCase(Locale.ROOT),
+                            target.getValue().unwrap(HikariDataSource.class));
+                }
+            }
+        } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            pools.put("default", dataSource.unwrap(HikariDataSource.class));
+        }
+        return pools;
+    }
+
+    private Health poolHealth(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            // The pool starts with the first connection request
+            return Health.unknown().withDetail("reason", "Pool not started").build();
+        }
+
+        int maximum = hikari.getMaximumPoolSize();
+        int waiting = pool.getThreadsAwaitingConnection();
+        int limit = maxWaiting >= 0 ? maxWaiting : maximum;
+        Health.Builder builder = waiting > limit ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("active", pool.getActiveConnections())
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("maximum", maximum)
+                .withDetail("waiting", waiting)
+                .withDetail("maxWaiting", limit)
+                .build();
+    }
+}
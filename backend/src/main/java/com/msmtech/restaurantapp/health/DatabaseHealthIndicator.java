@@ -0,0 +1,121 @@
+package com.msmtech.restaurantapp.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Database connectivity for the readiness probe.
+ * The result is cached for {@code app.health.db.cache-ttl} ms and at most one probe query runs at a time,
+ * so however often the load balancer asks, probes never pile onto the database. A probe that does not
+ * answer within {@code app.health.db.timeout} ms reports DOWN instead of hanging the health request.
+ */
+@Component
+public class DatabaseHealthIndicator implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseHealthIndicator.class);
+
+    private final DataSource dataSource;
+
+    private final ExecutorService probeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.health.db.cache-ttl:5000}")
+    private long cacheTtlMillis;
+
+    @Value("${app.health.db.timeout:2000}")
+    private long timeoutMillis;
+
+    private final ReentrantLock probeLock = new ReentrantLock();
+    private Future<Health> inFlight; // guarded by probeLock
+    private volatile Health lastHealth;
+    private volatile long lastCheckedAt;
+
+    public DatabaseHealthIndicator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Health health() {
+        Health cached = cachedHealth();
+        if (cached != null) {
+            return cached;
+        }
+
+        Future<Health> probe;
+        probeLock.lock();
+        try {
+            cached = cachedHealth();
+            if (cached != null) {
+                return cached;
+            }
+            // Callers arriving while a probe is running wait for that probe instead of starting another
+            if (inFlight == null || inFlight.isDone()) {
+                inFlight = probeExecutor.submit(this::probe);
+            }
+            probe = inFlight;
+        } finally {
+            probeLock.unlock();
+        }
+
+        Health health;
+        try {
+            health = probe.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            health = Health.down().withDetail("error", "No answer within " + timeoutMillis + " ms").build();
+        } catch (ExecutionException e) {
+            health = Health.down().withException(e.getCause()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Health.unknown().build();
+        }
+
+        if (!"UP".equals(health.getStatus().getCode())) {
+            logger.warn("Database health probe failed: {}", health.getDetails());
+        }
+        lastHealth = health;
+        lastCheckedAt = System.currentTimeMillis();
+        return health;
+    }
+
+    private Health cachedHealth() {
+        Health health = lastHealth;
+        return health != null && System.currentTimeMillis() - lastCheckedAt < cacheTtlMillis ? health : null;
+    }
+
+    private Health probe() throws Exception {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis));
+            boolean valid = connection.isValid(timeoutSeconds);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Health.Builder builder = valid ? Health.up() : Health.down();
+            return builder
+                    .withDetail("database", connection.getMetaData().getDatabaseProductName())
+                    .withDetail("responseTimeMillis", elapsedMillis)
+                    .build();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        probeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.msmtech.restaurantapp.health;
+
+import com.msmtech.restaurantapp.service.MenuCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports OUT_OF_SERVICE until the menu snapshot is loaded, so the first requests routed to a new instance
+ * are not the ones paying for the load. The cache is warmed at startup; if that failed (database not yet
+ * reachable), this retries the load at most once every {@code app.health.menu-cache.retry-interval} ms.
+ */
+@Component
+public class MenuCacheHealthIndicator implements HealthIndicator {
+
+    private final MenuCacheService menuCacheService;
+
+    @Value("${app.health.menu-cache.retry-interval:5000}")
+    private long retryIntervalMillis;
+
+    private final AtomicLong lastAttemptAt = new AtomicLong();
+
+    public MenuCacheHealthIndicator(MenuCacheService menuCacheService) {
+        this.menuCacheService = menuCacheService;
+    }
+
+    @Override
+    public Health health() {
+        MenuCacheService.MenuSnapshot snapshot = menuCacheService.peekSnapshot();
+        if (snapshot == null) {
+            long now = System.currentTimeMillis();
+            long last = lastAttemptAt.get();
+            if (now - last >= retryIntervalMillis && lastAttemptAt.compareAndSet(last, now)) {
+                menuCacheService.tryWarmUp();
+            }
+            snapshot = menuCacheService.peekSnapshot();
+        }
+        if (snapshot == null) {
+            return Health.outOfService().withDetail("menu", "not loaded").build();
+        }
+        return Health.up()
+                .withDetail("version", snapshot.getVersion())
+                .withDetail("items", snapshot.getAllItems().size())
+                .build();
+    }
+}
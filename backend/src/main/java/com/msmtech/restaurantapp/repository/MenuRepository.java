@@ -4,6 +4,7 @@ import com.msmtech.restaurantapp.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,17 +13,22 @@ import java.util.Optional;
 public interface MenuRepository extends JpaRepository<MenuItem, Long> {
 
     // Learning: Spring Data JPA Query Methods
+    @Transactional(readOnly = true)
     List<MenuItem> findByCategory(String category);
 
+    @Transactional(readOnly = true)
     List<MenuItem> findByPriceLessThan(Double maxPrice);
 
+    @Transactional(readOnly = true)
     List<MenuItem> findByNameContainingIgnoreCase(String name);
 
     // Learning: Custom JPQL query
+    @Transactional(readOnly = true)
     @Query("SELECT m FROM MenuItem m WHERE m.price BETWEEN :minPrice AND :maxPrice")
     List<MenuItem> findMenuItemsInPriceRange(Double minPrice, Double maxPrice);
 
     // Learning: Projection query
+    @Transactional(readOnly = true)
     @Query("SELECT m.name, m.price FROM MenuItem m WHERE m.category = :category")
     List<Object[]> findMenuNamesAndPricesByCategory(String category);
 
@@ -1,35 +1,139 @@
 package com.msmtech.restaurantapp.repository;
 
 import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     // Find orders by user email (through user association)
+    @Transactional(readOnly = true)
     @Query("SELECT o FROM Order o WHERE o.user.email = :email ORDER BY o.createdAt DESC")
     List<Order> findByUserEmail(@Param("email") String email);
 
     // Find orders by customer email (direct field)
+    @Transactional(readOnly = true)
     @Query("SELECT o FROM Order o WHERE o.customerEmail = :email ORDER BY o.createdAt DESC")
     List<Order> findByCustomerEmail(@Param("email") String email);
 
     // Add this method - find orders by user ID
+    @Transactional(readOnly = true)
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC")
     List<Order> findByUserId(@Param("userId") Long userId);
 
     // Find orders by user phone
+    @Transactional(readOnly = true)
     @Query("SELECT o FROM Order o WHERE o.user.phone = :phone")
     List<Order> findByUserPhone(@Param("phone") String phone);
 
 
     // This method should exist for findAll() to work with sorting
+    @Transactional(readOnly = true)
     List<Order> findAllByOrderByCreatedAtDesc();
 
+    // One order with its items and owner in a single statement
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items LEFT JOIN FETCH o.user WHERE o.id = :id")
+    Optional<Order> findByIdWithItems(@Param("id") Long id);
 
+    // Status changes are compare-and-set: the row changes only if its current status may move to :next
+    // (and, in the second form, nobody changed it since :version was read). Returns 0 otherwise.
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1 " +
+            "WHERE o.id = :id AND o.status IN :allowedFrom")
+    int updateStatus(@Param("id") Long id,
+                     @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                     @Param("next") OrderStatus next);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1 " +
+            "WHERE o.id = :id AND o.status IN :allowedFrom AND o.version = :version")
+    int updateStatus(@Param("id") Long id,
+                     @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                     @Param("version") Long version,
+                     @Param("next") OrderStatus next);
+
+    // Explains a rejected status change without loading the order
+    @Query("SELECT o.status AS status, o.version AS version FROM Order o WHERE o.id = :id")
+    Optional<StatusAndVersion> findStatusAndVersionById(@Param("id") Long id);
+
+    interface StatusAndVersion {
+        OrderStatus getStatus();
+        Long getVersion();
+    }
+
+    // Active orders for the kitchen board, oldest first, with their items
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.status IN :statuses ORDER BY o.createdAt, o.id")
+    List<Order> findByStatusInWithItems(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // Keyset pages: each query pages by (createdAt, id) in a LIMIT subquery and fetch-joins the items
+    // of just that page, so a page is a single round trip however large the orders table grows.
+    // Pass OrderCursor.FIRST for the first page.
+    // Listings are read-only transactions, so they run on the read replica when one is configured.
+
+    // "My orders": matches every ownership path (user link or customer email)
+    @Transactional(readOnly = true)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN (" +
+            "SELECT s.id FROM Order s WHERE (s.user.id IN (SELECT u.id FROM User u WHERE u.email = :email) " +
+            "OR s.customerEmail = :email) " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC LIMIT :limit) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findOwnedPage(@Param("email") String email,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN (" +
+            "SELECT s.id FROM Order s " +
+            "WHERE s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id) " +
+            "ORDER BY s.createdAt DESC, s.id DESC LIMIT :limit) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPage(@Param("createdAt") LocalDateTime createdAt,
+                         @Param("id") Long id,
+                         @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN (" +
+            "SELECT s.id FROM Order s WHERE s.user.email = :email " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC LIMIT :limit) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserEmail(@Param("email") String email,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN (" +
+            "SELECT s.id FROM Order s WHERE s.user.phone = :phone " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC LIMIT :limit) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserPhone(@Param("phone") String phone,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN (" +
+            "SELECT s.id FROM Order s WHERE s.user.id = :userId " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC LIMIT :limit) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserId(@Param("userId") Long userId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.msmtech.restaurantapp.repository;
+
+import com.msmtech.restaurantapp.entity.SalesCategoryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesCategoryRollupRepository extends JpaRepository<SalesCategoryRollup, SalesCategoryRollup.Key> {
+
+    // Adds one order to the categories of its items (sign = 1), or takes it out again (sign = -1); rows in key order
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO sales_category_rollups (period, bucket_start, category, order_count, quantity, revenue) " +
+            "SELECT p.period, date_trunc(lower(p.period), o.created_at), coalesce(i.category, 'Other'), :sign, " +
+            ":sign * sum(i.quantity), :sign * sum(round(CAST(i.price AS numeric) * i.quantity, 2)) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period) " +
+            "WHERE o.id = :orderId " +
+            "GROUP BY p.period, o.created_at, coalesce(i.category, 'Other') ORDER BY 1, 2, 3 " +
+            "ON CONFLICT (period, bucket_start, category) DO UPDATE SET " +
+            "order_count = sales_category_rollups.order_count + EXCLUDED.order_count, " +
+            "quantity = sales_category_rollups.quantity + EXCLUDED.quantity, " +
+            "revenue = sales_category_rollups.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int addOrder(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    // Totals per category over [from, to), highest revenue first; the range is split as in SalesItemRollupRepository
+    @Transactional(readOnly = true)
+    @Query("SELECT r.category AS category, SUM(r.orderCount) AS orderCount, SUM(r.quantity) AS quantity, " +
+            "SUM(r.revenue) AS revenue FROM SalesCategoryRollup r " +
+            SalesItemRollupRepository.SPAN +
+            "GROUP BY r.category HAVING SUM(r.orderCount) > 0 ORDER BY SUM(r.revenue) DESC, r.category")
+    List<CategorySales> sumByCategory(@Param("from") LocalDateTime from,
+                                      @Param("dayFrom") LocalDateTime dayFrom,
+                                      @Param("dayTo") LocalDateTime dayTo,
+                                      @Param("to") LocalDateTime to);
+
+    interface CategorySales {
+        String getCategory();
+        Long getOrderCount();
+        Long getQuantity();
+        BigDecimal getRevenue();
+    }
+}
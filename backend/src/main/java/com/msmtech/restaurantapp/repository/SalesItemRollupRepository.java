@@ -0,0 +1,78 @@
+package com.msmtech.restaurantapp.repository;
+
+import com.msmtech.restaurantapp.entity.SalesItemRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesItemRollupRepository extends JpaRepository<SalesItemRollup, SalesItemRollup.Key> {
+
+    // [from, to) read as whole days [dayFrom, dayTo) plus the hours before and after them,
+    // so a long range costs one row per day rather than one per hour
+    String SPAN = "WHERE ((r.period = com.msmtech.restaurantapp.entity.RollupPeriod.DAY " +
+            "AND r.bucketStart >= :dayFrom AND r.bucketStart < :dayTo) " +
+            "OR (r.period = com.msmtech.restaurantapp.entity.RollupPeriod.HOUR " +
+            "AND (r.bucketStart >= :from AND r.bucketStart < :dayFrom OR r.bucketStart >= :dayTo AND r.bucketStart < :to))) ";
+
+    // Adds one order to the menu items it contains (sign = 1), or takes it out again (sign = -1); rows in key order
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO sales_item_rollups (period, bucket_start, menu_item_id, menu_item_name, category, " +
+            "order_count, quantity, revenue) " +
+            "SELECT p.period, date_trunc(lower(p.period), o.created_at), i.menu_item_id, max(i.menu_item_name), " +
+            "coalesce(max(i.category), 'Other'), :sign, " +
+            ":sign * sum(i.quantity), :sign * sum(round(CAST(i.price AS numeric) * i.quantity, 2)) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period) " +
+            "WHERE o.id = :orderId " +
+            "GROUP BY p.period, o.created_at, i.menu_item_id ORDER BY 1, 2, 3 " +
+            "ON CONFLICT (period, bucket_start, menu_item_id) DO UPDATE SET " +
+            "order_count = sales_item_rollups.order_count + EXCLUDED.order_count, " +
+            "quantity = sales_item_rollups.quantity + EXCLUDED.quantity, " +
+            "revenue = sales_item_rollups.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int addOrder(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    // Best sellers over [from, to) by quantity
+    @Transactional(readOnly = true)
+    @Query("SELECT r.menuItemId AS menuItemId, MAX(r.menuItemName) AS menuItemName, MAX(r.category) AS category, " +
+            "SUM(r.orderCount) AS orderCount, SUM(r.quantity) AS quantity, SUM(r.revenue) AS revenue " +
+            "FROM SalesItemRollup r " + SPAN +
+            "GROUP BY r.menuItemId HAVING SUM(r.orderCount) > 0 ORDER BY SUM(r.quantity) DESC, r.menuItemId")
+    List<ItemSales> findTopItems(@Param("from") LocalDateTime from,
+                                 @Param("dayFrom") LocalDateTime dayFrom,
+                                 @Param("dayTo") LocalDateTime dayTo,
+                                 @Param("to") LocalDateTime to,
+                                 Limit limit);
+
+    // Same, for the items of one category
+    @Transactional(readOnly = true)
+    @Query("SELECT r.menuItemId AS menuItemId, MAX(r.menuItemName) AS menuItemName, MAX(r.category) AS category, " +
+            "SUM(r.orderCount) AS orderCount, SUM(r.quantity) AS quantity, SUM(r.revenue) AS revenue " +
+            "FROM SalesItemRollup r " + SPAN +
+            "AND r.category = :category " +
+            "GROUP BY r.menuItemId HAVING SUM(r.orderCount) > 0 ORDER BY SUM(r.quantity) DESC, r.menuItemId")
+    List<ItemSales> findTopItemsInCategory(@Param("from") LocalDateTime from,
+                                           @Param("dayFrom") LocalDateTime dayFrom,
+                                           @Param("dayTo") LocalDateTime dayTo,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("category") String category,
+                                           Limit limit);
+
+    interface ItemSales {
+        Long getMenuItemId();
+        String getMenuItemName();
+        String getCategory();
+        Long getOrderCount();
+        Long getQuantity();
+        BigDecimal getRevenue();
+    }
+}
@@ -0,0 +1,43 @@
+package com.msmtech.restaurantapp.repository;
+
+import com.msmtech.restaurantapp.entity.RollupPeriod;
+import com.msmtech.restaurantapp.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollup.Key> {
+
+    // Adds one order to its hour and day (sign = 1), or takes it out again (sign = -1). Rows are written
+    // in key order, the same in every transaction, so concurrent orders queue for a bucket instead of deadlocking.
+    // Flushes first: the order's own rows may still be pending in the session.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO sales_rollups (period, bucket_start, order_count, item_quantity, revenue) " +
+            "SELECT p.period, date_trunc(lower(p.period), o.created_at), :sign, " +
+            ":sign * sum(i.quantity), :sign * sum(round(CAST(i.price AS numeric) * i.quantity, 2)) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period) " +
+            "WHERE o.id = :orderId " +
+            "GROUP BY p.period, o.created_at ORDER BY 1, 2 " +
+            "ON CONFLICT (period, bucket_start) DO UPDATE SET " +
+            "order_count = sales_rollups.order_count + EXCLUDED.order_count, " +
+            "item_quantity = sales_rollups.item_quantity + EXCLUDED.item_quantity, " +
+            "revenue = sales_rollups.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int addOrder(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    // One row per bucket that had sales, oldest first; a bucket whose orders were all cancelled is left out
+    @Transactional(readOnly = true)
+    @Query("SELECT r FROM SalesRollup r WHERE r.period = :period AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND r.orderCount > 0 ORDER BY r.bucketStart")
+    List<SalesRollup> findSeries(@Param("period") RollupPeriod period,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+}
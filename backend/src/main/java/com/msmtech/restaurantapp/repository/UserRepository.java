@@ -2,9 +2,11 @@ package com.msmtech.restaurantapp.repository;
 
 import com.msmtech.restaurantapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +33,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users by role
     List<User> findByRole(String role);
 
+    // Replace the password hash without loading the user (rehash on login)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     // Check if email or phone already exists (for registration)
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.email = :email OR u.phone = :phone")
     boolean existsByEmailOrPhone(@Param("email") String email, @Param("phone") String phone);
@@ -0,0 +1,24 @@
+package com.msmtech.restaurantapp.service;
+
+import com.msmtech.restaurantapp.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Spring Security principal that keeps the {@link User} row it was loaded from, so code running
+ * after authentication (token issue, login response, password rehash) does not query for it again.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final transient User user;
+
+    public AuthenticatedUser(User user, Collection<? extends GrantedAuthority> authorities) {
+        super(user.getEmail(), user.getPassword(), authorities);
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+}
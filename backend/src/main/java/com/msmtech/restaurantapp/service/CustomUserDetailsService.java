@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -24,11 +25,22 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmailOrPhone(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with identifier: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                getAuthorities(user.getRole())
-        );
+        return new AuthenticatedUser(user, getAuthorities(user.getRole()));
+    }
+
+    // Called after a successful login when the stored hash uses an older work factor
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        if (userDetails instanceof AuthenticatedUser authenticated) {
+            userRepository.updatePassword(authenticated.getUser().getId(), newPassword);
+            authenticated.getUser().setPassword(newPassword);
+        } else {
+            userRepository.findByEmail(userDetails.getUsername()).ifPresent(user ->
+                    userRepository.updatePassword(user.getId(), newPassword));
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
     }
 
     private Collection<? extends GrantedAuthority> getAuthorities(String role) {
@@ -0,0 +1,290 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.dto.KitchenOrder;
+import com.msmtech.restaurantapp.dto.KitchenQueueResponse;
+import com.msmtech.restaurantapp.dto.OrderResponse;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.event.OrderCreatedEvent;
+import com.msmtech.restaurantapp.event.OrderStatusChangedEvent;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live kitchen board: every active order (PENDING, CONFIRMED, PREPARING), oldest first, held in memory.
+ * Loaded once at startup, before the server accepts requests, and then kept current from order
+ * creation and status change events, so reading the board costs O(active orders) and no query.
+ * <p>
+ * Every change gets a sequence number and is pushed to stream subscribers as a delta. A client opens the
+ * stream, reads the board, and applies the deltas numbered above the board's sequence. Deltas are
+ * upserts and removals, so applying one twice is harmless. Deltas are queued per subscriber
+ * ({@link SseSubscriber}); a client that falls behind is disconnected and reads the board again when it reconnects.
+ * <p>
+ * Events from concurrent requests can arrive in a different order than their transactions committed, so
+ * every change carries the order's version and one that is not newer than what the board has is dropped.
+ * <p>
+ * The board sees changes made through this instance only.
+ */
+@Service
+public class KitchenQueueService implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenQueueService.class);
+
+    private static final String EVENT_NAME = "kitchen-delta";
+
+    // How many removed orders keep their last version, so a late event cannot put them back on the board
+    private static final int MAX_REMOVED_VERSIONS = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor sendExecutor;
+
+    private final ConcurrentSkipListMap<QueuePosition, KitchenOrder> queue = new ConcurrentSkipListMap<>();
+    private final Map<Long, QueuePosition> positions = new ConcurrentHashMap<>();
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guarded by updateLock
+    private final Map<Long, Long> removedVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_REMOVED_VERSIONS;
+        }
+    };
+
+    // Serializes changes so sequence numbers follow the order in which they are applied and sent
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile long sequence;
+
+    @Value("${app.orders.stream.timeout:1800000}")
+    private long streamTimeoutMillis;
+
+    @Value("${app.orders.stream.subscriber-buffer:32}")
+    private int subscriberBuffer;
+
+    public KitchenQueueService(OrderRepository orderRepository, ObjectMapper objectMapper,
+                               @Value("${app.orders.stream.send-threads:2}") int sendThreads,
+                               @Value("${app.orders.stream.send-queue-capacity:10000}") int sendQueueCapacity) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.sendExecutor = SseSubscriber.newSendExecutor("kitchen-stream-", sendThreads, sendQueueCapacity);
+    }
+
+    // Runs before the web server starts, so no order event can interleave with the initial load
+    @Override
+    public void afterSingletonsInstantiated() {
+        Set<OrderStatus> activeStatuses = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isActive()) {
+                activeStatuses.add(status);
+            }
+        }
+        List<Order> active = orderRepository.findByStatusInWithItems(activeStatuses);
+        for (Order order : active) {
+            QueuePosition position = new QueuePosition(order.getCreatedAt(), order.getId());
+            queue.put(position, new KitchenOrder(new OrderResponse(order)));
+            positions.put(order.getId(), position);
+        }
+        logger.info("Kitchen queue loaded with {} active orders", active.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    public KitchenQueueResponse getQueue() {
+        // Read first: a change that lands during the walk may be included, and is also delivered as a later delta
+        long current = sequence;
+        return new KitchenQueueResponse(current, List.copyOf(queue.values()));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        KitchenOrder order = new KitchenOrder(event.getOrder());
+        if (OrderStatus.valueOf(order.getStatus()).isActive()) {
+            upsert(new QueuePosition(event.getCreatedAt(), order.getId()), order);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!event.getStatus().isActive()) {
+            remove(event.getOrderId(), event.getVersion());
+            return;
+        }
+        updateLock.lock();
+        try {
+            QueuePosition position = positions.get(event.getOrderId());
+            if (position != null) {
+                upsert(position, queue.get(position).withStatus(event.getStatus().name(), event.getVersion()));
+                return;
+            }
+        } finally {
+            updateLock.unlock();
+        }
+        // Not on the board yet (e.g. created through another instance): load it once
+        orderRepository.findByIdWithItems(event.getOrderId())
+                .filter(order -> order.getStatus().isActive())
+                .ifPresent(order -> upsert(new QueuePosition(order.getCreatedAt(), order.getId()),
+                        new KitchenOrder(new OrderResponse(order))));
+    }
+
+    public SseEmitter subscribe(String email) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        SseSubscriber subscriber = new SseSubscriber(emitter, sendExecutor, subscriberBuffer, subscribers::remove);
+        subscribers.add(subscriber);
+
+        // Commit the response headers right away so the client knows the stream is open
+        subscriber.send(SseEmitter.event().comment("connected"));
+        logger.debug("Kitchen stream subscriber added for {}", email);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-interval:25000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.send(SseEmitter.event().comment("heartbeat")));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("kitchen.queue.orders", queue, Map::size)
+                .description("Active orders on the kitchen board")
+                .register(registry);
+        Gauge.builder("kitchen.queue.subscribers", subscribers, Set::size)
+                .description("Open kitchen board streams")
+                .register(registry);
+    }
+
+    private void upsert(QueuePosition position, KitchenOrder order) {
+        updateLock.lock();
+        try {
+            if (!isNewer(order.getId(), order.getVersion())) {
+                logger.debug("Dropped stale kitchen update for order {} at version {}", order.getId(), order.getVersion());
+                return;
+            }
+            queue.put(position, order);
+            positions.put(order.getId(), position);
+            publish("upsert", order.getId(), order);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Leaving the board is final (no transition leads back to an active status), so removals are never dropped
+    private void remove(Long orderId, Long version) {
+        updateLock.lock();
+        try {
+            if (isNewer(orderId, version)) {
+                removedVersions.put(orderId, version);
+            }
+            QueuePosition position = positions.remove(orderId);
+            if (position != null) {
+                queue.remove(position);
+                publish("remove", orderId, null);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Caller must hold updateLock. A missing version counts as older than any other.
+    private boolean isNewer(Long orderId, Long version) {
+        QueuePosition position = positions.get(orderId);
+        Long current = position != null ? queue.get(position).getVersion() : removedVersions.get(orderId);
+        if (position == null && current == null) {
+            return true;
+        }
+        return versionOrOldest(version) > versionOrOldest(current);
+    }
+
+    private static long versionOrOldest(Long version) {
+        return version != null ? version : -1;
+    }
+
+    // Caller must hold updateLock
+    private void publish(String type, Long orderId, KitchenOrder order) {
+        long next = sequence + 1;
+        sequence = next;
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            // Serialize once for every subscriber
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("sequence", next);
+            delta.put("type", type);
+            delta.put("orderId", orderId);
+            if (order != null) {
+                delta.put("order", order);
+            }
+            payload = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize kitchen delta for order {}", orderId, e);
+            return;
+        }
+        // Queued under updateLock, so each subscriber's queue holds the deltas in sequence order
+        String eventId = Long.toString(next);
+        subscribers.forEach(subscriber ->
+                subscriber.send(SseEmitter.event().name(EVENT_NAME).id(eventId).data(payload)));
+    }
+
+    // Board order: oldest first, id breaks ties between orders created in the same instant
+    private static final class QueuePosition implements Comparable<QueuePosition> {
+        private static final Comparator<QueuePosition> ORDER = Comparator
+                .comparing((QueuePosition p) -> p.createdAt)
+                .thenComparing(p -> p.orderId);
+
+        private final LocalDateTime createdAt;
+        private final Long orderId;
+
+        QueuePosition(LocalDateTime createdAt, Long orderId) {
+            this.createdAt = createdAt;
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int compareTo(QueuePosition other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof QueuePosition other && createdAt.equals(other.createdAt) && orderId.equals(other.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * createdAt.hashCode() + orderId.hashCode();
+        }
+    }
+}
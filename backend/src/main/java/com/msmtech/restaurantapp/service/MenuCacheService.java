@@ -0,0 +1,275 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.event.MenuItemChangedEvent;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-through, in-memory copy of the whole menu.
+ * The menu changes a few times a day but is read on every page view, so reads are served from an
+ * immutable snapshot (all items plus a per-category index) and never touch the connection pool.
+ * The snapshot is replaced in one step after every committed insert, update or delete of a {@link MenuItem}.
+ */
+@Service
+public class MenuCacheService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCacheService.class);
+
+    private final MenuRepository menuRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile MenuSnapshot snapshot;
+    private long nextVersion = 1; // guarded by rebuildLock
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public MenuCacheService(MenuRepository menuRepository, ObjectMapper objectMapper) {
+        this.menuRepository = menuRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<MenuItem> getAllItems() {
+        return currentSnapshot().getAllItems();
+    }
+
+    public List<MenuItem> getItemsByCategory(String category) {
+        return currentSnapshot().getItemsByCategory(category);
+    }
+
+    public MenuSnapshot currentSnapshot() {
+        MenuSnapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        rebuildLock.lock();
+        try {
+            // Another request may have loaded it while we waited
+            return snapshot != null ? snapshot : rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Current snapshot without loading it or counting a read; null until the first load
+    public MenuSnapshot peekSnapshot() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!tryWarmUp()) {
+            logger.warn("Menu cache could not be warmed at startup; readiness stays down until it loads");
+        }
+    }
+
+    /**
+     * Loads the snapshot if it is not loaded yet. Never waits behind a rebuild that is already running
+     * and never throws, so health checks can call it. Returns whether a snapshot is loaded.
+     */
+    public boolean tryWarmUp() {
+        if (snapshot != null) {
+            return true;
+        }
+        if (!rebuildLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (snapshot == null) {
+                rebuild();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Menu cache load failed: {}", e.getMessage());
+            return false;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // In a read-write transaction of its own, so the rebuild reads the primary, which has the change;
+    // a read replica may not have it yet
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        logger.debug("Menu item {} changed, rebuilding menu cache", event.getMenuItemId());
+        rebuildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Caller must hold rebuildLock
+    private MenuSnapshot rebuild() {
+        MenuSnapshot fresh = new MenuSnapshot(nextVersion++, menuRepository.findAll(), this::render);
+        snapshot = fresh;
+        rebuilds.incrementAndGet();
+        logger.info("Menu cache rebuilt: version {} with {} items (hits={}, misses={}, rebuilds={})",
+                fresh.getVersion(), fresh.getAllItems().size(), hits.get(), misses.get(), rebuilds.get());
+        return fresh;
+    }
+
+    // Serialize and compress once per snapshot instead of once per request
+    private RenderedBody render(List<MenuItem> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 3 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+            return new RenderedBody(json, compressed.toByteArray(), hash);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not render menu", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("menu.cache.requests", hits, AtomicLong::get)
+                .description("Menu reads served from the snapshot (hit) or that had to load it (miss)")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.requests", misses, AtomicLong::get)
+                .description("Menu reads served from the snapshot (hit) or that had to load it (miss)")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.rebuilds", rebuilds, AtomicLong::get)
+                .description("Snapshot rebuilds after a menu change or a cold read")
+                .register(registry);
+        Gauge.builder("menu.cache.items", this, service -> {
+                    MenuSnapshot current = service.snapshot;
+                    return current != null ? current.getAllItems().size() : 0;
+                })
+                .description("Menu items in the current snapshot")
+                .register(registry);
+    }
+
+    public long getHits() { return hits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    public long getRebuilds() { return rebuilds.get(); }
+
+    /**
+     * Immutable view of the menu at one point in time, indexed by category and by id. The version increases
+     * with every rebuild.
+     * Every list the API can return is also held pre-serialized, see {@link RenderedBody}.
+     */
+    public static final class MenuSnapshot {
+        private final long version;
+        private final List<MenuItem> allItems;
+        private final Map<String, List<MenuItem>> itemsByCategory;
+        private final Map<Long, MenuItem> itemsById;
+        private final RenderedBody renderedAll;
+        private final Map<String, RenderedBody> renderedByCategory;
+        private final RenderedBody renderedEmpty;
+
+        MenuSnapshot(long version, List<MenuItem> items, Function<List<MenuItem>, RenderedBody> renderer) {
+            this.version = version;
+            this.allItems = List.copyOf(items);
+
+            Map<String, List<MenuItem>> grouped = new LinkedHashMap<>();
+            for (MenuItem item : allItems) {
+                grouped.computeIfAbsent(item.getCategory(), c -> new ArrayList<>()).add(item);
+            }
+            grouped.replaceAll((category, categoryItems) -> List.copyOf(categoryItems));
+            this.itemsByCategory = Map.copyOf(grouped);
+
+            Map<Long, MenuItem> byId = new HashMap<>();
+            for (MenuItem item : allItems) {
+                byId.put(item.getId(), item);
+            }
+            this.itemsById = Map.copyOf(byId);
+
+            this.renderedAll = renderer.apply(allItems);
+            Map<String, RenderedBody> rendered = new HashMap<>();
+            itemsByCategory.forEach((category, categoryItems) -> rendered.put(category, renderer.apply(categoryItems)));
+            this.renderedByCategory = Map.copyOf(rendered);
+            this.renderedEmpty = renderer.apply(List.of());
+        }
+
+        public long getVersion() { return version; }
+
+        public List<MenuItem> getAllItems() { return allItems; }
+
+        public List<MenuItem> getItemsByCategory(String category) {
+            return itemsByCategory.getOrDefault(category, List.of());
+        }
+
+        public Map<String, List<MenuItem>> getItemsByCategory() { return itemsByCategory; }
+
+        // Null when the item does not exist or was removed from the menu
+        public MenuItem getItem(Long id) {
+            return id != null ? itemsById.get(id) : null;
+        }
+
+        public RenderedBody getRenderedAll() { return renderedAll; }
+
+        public RenderedBody getRenderedCategory(String category) {
+            return renderedByCategory.getOrDefault(category, renderedEmpty);
+        }
+    }
+
+    /**
+     * A JSON response body rendered ahead of time, in plain and gzip form, with strong ETags.
+     * ETags are derived from the content, so they survive restarts and agree across instances.
+     */
+    public static final class RenderedBody {
+        private final byte[] json;
+        private final byte[] gzipped;
+        private final String etag;
+        private final String gzipEtag;
+
+        RenderedBody(byte[] json, byte[] gzipped, String contentHash) {
+            this.json = json;
+            this.gzipped = gzipped;
+            this.etag = "\"" + contentHash + "\"";
+            this.gzipEtag = "\"" + contentHash + "-gz\"";
+        }
+
+        public byte[] getJson() { return json; }
+
+        public byte[] getGzipped() { return gzipped; }
+
+        public String getEtag() { return etag; }
+
+        public String getGzipEtag() { return gzipEtag; }
+    }
+}
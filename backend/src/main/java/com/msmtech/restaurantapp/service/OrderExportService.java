@@ -0,0 +1,323 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Order exports for staff: every order created in a range, oldest first, as CSV (one line per order item) or
+ * NDJSON (one order per line). Rows are read through a forward-only cursor, a fetch-size batch at a time, and
+ * written to the response as they arrive, so an export of any size holds one batch in memory.
+ * <p>
+ * An export keeps a pooled connection for as long as the client takes to download it, so only
+ * {@code max-concurrent} run at a time.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // Open ends of the range; both are valid PostgreSQL timestamps and hit idx_orders_created
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Scalars rather than entities, so nothing piles up in the persistence context while scrolling
+    private static final String EXPORT_QUERY = """
+            SELECT o.id, o.createdAt, o.status, o.customerName, o.customerEmail, o.customerPhone,
+                   o.deliveryAddress, o.specialInstructions, o.totalAmount,
+                   i.menuItemId, i.menuItemName, i.category, i.quantity, i.price
+            FROM Order o LEFT JOIN o.items i
+            WHERE o.createdAt >= :from AND o.createdAt < :to
+            ORDER BY o.createdAt, o.id, i.id""";
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "created_at", "status", "customer_name", "customer_email", "customer_phone",
+            "delivery_address", "special_instructions", "total_amount",
+            "menu_item_id", "menu_item_name", "category", "quantity", "price"
+    };
+
+    // Column positions in EXPORT_QUERY
+    private static final int ORDER_ID = 0;
+    private static final int CREATED_AT = 1;
+    private static final int STATUS = 2;
+    private static final int CUSTOMER_NAME = 3;
+    private static final int CUSTOMER_EMAIL = 4;
+    private static final int CUSTOMER_PHONE = 5;
+    private static final int DELIVERY_ADDRESS = 6;
+    private static final int SPECIAL_INSTRUCTIONS = 7;
+    private static final int TOTAL_AMOUNT = 8;
+    private static final int MENU_ITEM_ID = 9;
+    private static final int MENU_ITEM_NAME = 10;
+    private static final int CATEGORY = 11;
+    private static final int QUANTITY = 12;
+    private static final int PRICE = 13;
+
+    private static final Pattern PHONE_LIKE = Pattern.compile("[+-]?[0-9 ().-]+");
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    // Read-only, so PostgreSQL streams the cursor instead of materializing the result
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.orders.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.orders.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore exportSlots;
+
+    public OrderExportService(EntityManager entityManager, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void init() {
+        exportSlots = new Semaphore(maxConcurrent);
+    }
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @throws IllegalArgumentException if it names no format
+         */
+        public static Format parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Where the export goes; opened only once a slot is free and the cursor is open
+    @FunctionalInterface
+    public interface ExportTarget {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Writes the orders created in [{@code from}, {@code to}) to the stream opened by {@code target} and closes it.
+     * Either bound may be null for an open end.
+     *
+     * @return the number of orders written
+     * @throws ExportBusyException if {@code max-concurrent} exports are running; {@code target} is not opened
+     */
+    public long export(Format format, LocalDateTime from, LocalDateTime to, ExportTarget target) throws IOException {
+        if (!exportSlots.tryAcquire()) {
+            throw new ExportBusyException(maxConcurrent);
+        }
+        long started = System.nanoTime();
+        try {
+            Long orders = readOnlyTransaction.execute(status -> {
+                try {
+                    return scroll(format, from != null ? from : EARLIEST, to != null ? to : LATEST, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Exported {} orders as {} in {} ms", orders, format,
+                    (System.nanoTime() - started) / 1_000_000);
+            return orders;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportSlots.release();
+        }
+    }
+
+    private long scroll(Format format, LocalDateTime from, LocalDateTime to, ExportTarget target) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Object[]> rows = session.createSelectionQuery(EXPORT_QUERY, Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+             OutputStream out = target.open()) {
+            RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+            while (rows.next()) {
+                writer.write(rows.get());
+            }
+            return writer.finish();
+        }
+    }
+
+    private interface RowWriter {
+        void write(Object[] row) throws IOException;
+
+        // Flushes what is left and returns the number of orders written
+        long finish() throws IOException;
+    }
+
+    // RFC 4180, one line per item; an order without items gets one line with the item columns empty
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+        private Object lastOrderId;
+        private long orders;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            if (!row[ORDER_ID].equals(lastOrderId)) {
+                lastOrderId = row[ORDER_ID];
+                orders++;
+            }
+            for (int column = 0; column < row.length; column++) {
+                if (column > 0) {
+                    writer.write(',');
+                }
+                writeField(row[column]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Number) {
+                writer.write(value.toString());
+                return;
+            }
+            String text = value instanceof LocalDateTime dateTime ? DATE_FORMATTER.format(dateTime) : value.toString();
+            // Customer text starting like a formula would run as one when the file is opened in a spreadsheet;
+            // phone numbers such as +44 20 ... are left alone
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 && !PHONE_LIKE.matcher(text).matches()) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public long finish() throws IOException {
+            writer.flush();
+            return orders;
+        }
+    }
+
+    // One JSON object per order, with the same field names as the order API; rows arrive grouped by order
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private Object currentOrderId;
+        private long orders;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // Lines are separated by hand below, not by Jackson's default space between root values
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            if (!row[ORDER_ID].equals(currentOrderId)) {
+                if (currentOrderId != null) {
+                    endOrder();
+                }
+                startOrder(row);
+                currentOrderId = row[ORDER_ID];
+                orders++;
+            }
+            if (row[MENU_ITEM_ID] == null) {
+                return;
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("menuItemId", (Long) row[MENU_ITEM_ID]);
+            generator.writeStringField("menuItemName", (String) row[MENU_ITEM_NAME]);
+            generator.writeStringField("category", (String) row[CATEGORY]);
+            generator.writeNumberField("quantity", (Integer) row[QUANTITY]);
+            generator.writeNumberField("price", (Double) row[PRICE]);
+            generator.writeEndObject();
+        }
+
+        private void startOrder(Object[] row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", (Long) row[ORDER_ID]);
+            generator.writeStringField("createdAt", DATE_FORMATTER.format((LocalDateTime) row[CREATED_AT]));
+            generator.writeStringField("status", row[STATUS].toString());
+            generator.writeStringField("customerName", (String) row[CUSTOMER_NAME]);
+            generator.writeStringField("customerEmail", (String) row[CUSTOMER_EMAIL]);
+            generator.writeStringField("customerPhone", (String) row[CUSTOMER_PHONE]);
+            generator.writeStringField("deliveryAddress", (String) row[DELIVERY_ADDRESS]);
+            generator.writeStringField("specialInstructions", (String) row[SPECIAL_INSTRUCTIONS]);
+            generator.writeNumberField("totalAmount", (Double) row[TOTAL_AMOUNT]);
+            generator.writeArrayFieldStart("items");
+        }
+
+        private void endOrder() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public long finish() throws IOException {
+            if (currentOrderId != null) {
+                endOrder();
+            }
+            generator.flush();
+            return orders;
+        }
+    }
+
+    public static class ExportBusyException extends RuntimeException {
+        public ExportBusyException(int maxConcurrent) {
+            super("Too many exports in progress (at most " + maxConcurrent + ")");
+        }
+    }
+}
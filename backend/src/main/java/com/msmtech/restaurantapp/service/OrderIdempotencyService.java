@@ -0,0 +1,266 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.msmtech.restaurantapp.dto.OrderRequest;
+import com.msmtech.restaurantapp.dto.OrderResponse;
+import com.msmtech.restaurantapp.entity.IdempotencyRecord;
+import com.msmtech.restaurantapp.repository.IdempotencyRecordRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order creation keyed by the client's {@code Idempotency-Key}: a retried submission gets the original
+ * {@link OrderResponse} instead of creating the order again.
+ * <p>
+ * Keys are scoped to the user and remembered in a bounded in-memory cache for {@code ttl}. A duplicate
+ * that arrives while the first request is still running waits for its result rather than racing it.
+ * With {@code persistent=true} the key is also stored next to the order in the same transaction, so
+ * replays survive restarts and are recognised by every instance.
+ */
+@Service
+public class OrderIdempotencyService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.orders.idempotency.ttl:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.orders.idempotency.max-keys:10000}")
+    private long maxKeys;
+
+    @Value("${app.orders.idempotency.persistent:false}")
+    private boolean persistent;
+
+    @Value("${app.orders.idempotency.wait-timeout:10000}")
+    private long waitTimeoutMillis;
+
+    private Cache<String, Submission> submissions;
+
+    // Counted here: the cache is used through asMap(), which records no hit or miss statistics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public OrderIdempotencyService(OrderService orderService, OrderRepository orderRepository,
+                                   IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void init() {
+        submissions = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Creates the order once per key. Later calls with the same key and the same request return
+     * the first result, marked as replayed.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws IdempotencyKeyInProgressException if the first request with the key is still running after the wait timeout
+     */
+    public Result createOrder(String idempotencyKey, OrderRequest request, UserDetails userDetails) {
+        String keyHash = hash(userDetails.getUsername() + '\n' + idempotencyKey);
+        String requestHash = requestHash(request);
+
+        Submission submission = new Submission(requestHash);
+        Submission existing = submissions.asMap().putIfAbsent(keyHash, submission);
+        if (existing != null) {
+            return awaitExisting(existing, requestHash);
+        }
+
+        try {
+            Result result = persistent
+                    ? createOrReplayStored(keyHash, requestHash, request, userDetails)
+                    : new Result(orderService.createOrder(request, userDetails), false);
+            submission.result.complete(result.getResponse());
+            if (!result.isReplayed()) {
+                created.incrementAndGet();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            // Nothing was created: forget the key so a retry runs again
+            submissions.asMap().remove(keyHash, submission);
+            submission.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Result awaitExisting(Submission existing, String requestHash) {
+        if (!existing.requestHash.equals(requestHash)) {
+            rejected.incrementAndGet();
+            throw new IdempotencyKeyReusedException();
+        }
+        try {
+            OrderResponse response = existing.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            replayed.incrementAndGet();
+            return new Result(response, true);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException();
+        } catch (ExecutionException e) {
+            // The first request failed; the duplicate fails the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        }
+    }
+
+    // Cache miss with persistence on: the key may have been used before a restart or on another instance
+    private Result createOrReplayStored(String keyHash, String requestHash, OrderRequest request, UserDetails userDetails) {
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(keyHash);
+        if (stored.isPresent()) {
+            return replayStored(stored.get(), requestHash);
+        }
+        try {
+            return new Result(orderService.createOrder(request, userDetails, new IdempotencyRecord(keyHash, requestHash)), false);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the same key first; our order was rolled back with it
+            IdempotencyRecord winner = idempotencyRecordRepository.findById(keyHash).orElseThrow(() -> e);
+            return replayStored(winner, requestHash);
+        }
+    }
+
+    private Result replayStored(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            rejected.incrementAndGet();
+            throw new IdempotencyKeyReusedException();
+        }
+        Result result = orderRepository.findByIdWithItems(record.getOrderId())
+                .map(order -> new Result(new OrderResponse(order), true))
+                .orElseThrow(() -> new IllegalStateException("Order " + record.getOrderId() + " of a stored idempotency key no longer exists"));
+        replayed.incrementAndGet();
+        return result;
+    }
+
+    // Stored keys are only needed as long as the in-memory ones
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        if (!persistent) {
+            return;
+        }
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(Duration.ofMillis(ttlMillis)));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Outcomes of keyed submissions, plus size and evictions of the key cache under cache.* with cache="orderIdempotency"
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orders.idempotency.requests", created, AtomicLong::get)
+                .description("Keyed order submissions that created an order, replayed an earlier one or reused a key for a different order")
+                .tag("result", "created")
+                .register(registry);
+        FunctionCounter.builder("orders.idempotency.requests", replayed, AtomicLong::get)
+                .description("Keyed order submissions that created an order, replayed an earlier one or reused a key for a different order")
+                .tag("result", "replayed")
+                .register(registry);
+        FunctionCounter.builder("orders.idempotency.requests", rejected, AtomicLong::get)
+                .description("Keyed order submissions that created an order, replayed an earlier one or reused a key for a different order")
+                .tag("result", "rejected")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, submissions, "orderIdempotency");
+    }
+
+    public long getCreated() { return created.get(); }
+
+    public long getReplayed() { return replayed.get(); }
+
+    public long getRejected() { return rejected.get(); }
+
+    private String requestHash(OrderRequest request) {
+        try {
+            return hash(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order request", e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Submission {
+        private final String requestHash;
+        private final CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+
+        Submission(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    public static final class Result {
+        private final OrderResponse response;
+        private final boolean replayed;
+
+        Result(OrderResponse response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public OrderResponse getResponse() { return response; }
+
+        public boolean isReplayed() { return replayed; }
+    }
+
+    public static class IdempotencyKeyReusedException extends RuntimeException {
+        public IdempotencyKeyReusedException() {
+            super("Idempotency key was already used for a different request");
+        }
+    }
+
+    public static class IdempotencyKeyInProgressException extends RuntimeException {
+        public IdempotencyKeyInProgressException() {
+            super("A request with this idempotency key is still being processed");
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.msmtech.restaurantapp.service;
+
+import com.msmtech.restaurantapp.dto.OrderItemRequest;
+import com.msmtech.restaurantapp.dto.OrderRequest;
+import com.msmtech.restaurantapp.dto.OrderResponse;
+import com.msmtech.restaurantapp.entity.IdempotencyRecord;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderItem;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.entity.User;
+import com.msmtech.restaurantapp.event.OrderCreatedEvent;
+import com.msmtech.restaurantapp.event.OrderStatusChangedEvent;
+import com.msmtech.restaurantapp.repository.IdempotencyRecordRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import com.msmtech.restaurantapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates orders from {@link OrderRequest}s in a single transaction.
+ * Order and item ids come from pooled sequences, so nothing has to be inserted to learn an id:
+ * the order row and all of its item rows are flushed together at commit, the items as one JDBC batch
+ * (one statement on PostgreSQL with reWriteBatchedInserts). A 20-item order costs two inserts,
+ * plus a sequence call every 50 orders or items.
+ * <p>
+ * Names and prices are taken from the in-memory menu snapshot, never from the request, and all items
+ * of an order are priced against the same snapshot version. Pricing therefore needs no menu queries.
+ */
+@Service
+public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final MenuCacheService menuCacheService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderService(OrderRepository orderRepository, UserRepository userRepository,
+                        MenuCacheService menuCacheService, IdempotencyRecordRepository idempotencyRecordRepository,
+                        ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.menuCacheService = menuCacheService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Transactional itself: the call below does not go through the proxy
+    @Transactional
+    public OrderResponse createOrder(OrderRequest request, UserDetails userDetails) {
+        return createOrder(request, userDetails, null);
+    }
+
+    /**
+     * Creates the order and, when given, stores the idempotency record pointing at it in the same
+     * transaction, so a key is never remembered for an order that was rolled back.
+     */
+    @Transactional
+    public OrderResponse createOrder(OrderRequest request, UserDetails userDetails, IdempotencyRecord idempotencyRecord) {
+        Order order = new Order();
+        order.setCustomerName(request.getCustomerName());
+        order.setCustomerPhone(request.getCustomerPhone());
+        order.setDeliveryAddress(request.getDeliveryAddress());
+        order.setSpecialInstructions(request.getSpecialInstructions());
+        // Only the owner's identity decides whose order this is, never the request body
+        order.setCustomerEmail(userDetails.getUsername());
+        order.setUser(resolveUser(userDetails));
+
+        order.setItems(priceItems(request.getItems()));
+        if (request.getTotalAmount() != null
+                && Math.abs(request.getTotalAmount() - order.getTotalAmount()) >= 0.005) {
+            logger.info("Order total {} differs from the client's {}; the menu changed since it was loaded",
+                    order.getTotalAmount(), request.getTotalAmount());
+        }
+
+        Order savedOrder = orderRepository.save(order);
+        if (idempotencyRecord != null) {
+            idempotencyRecord.setOrderId(savedOrder.getId());
+            idempotencyRecordRepository.save(idempotencyRecord);
+        }
+        logger.info("Order {} created for {} with {} items", savedOrder.getId(), userDetails.getUsername(),
+                savedOrder.getItems().size());
+        OrderResponse response = new OrderResponse(savedOrder);
+        eventPublisher.publishEvent(new OrderCreatedEvent(response, savedOrder.getCreatedAt()));
+        return response;
+    }
+
+    /**
+     * Moves the order to {@code next} with one conditional UPDATE, then reads it back with its items
+     * for the response. {@code expectedVersion} is optional; when given, the change only applies if nobody
+     * changed the order since that version was read.
+     *
+     * @throws OrderNotFoundException if there is no such order
+     * @throws StaleOrderException if the order's version is no longer {@code expectedVersion}
+     * @throws InvalidStatusTransitionException if the order's current status cannot move to {@code next}
+     */
+    @Transactional
+    public OrderResponse updateStatus(Long orderId, OrderStatus next, Long expectedVersion) {
+        Set<OrderStatus> allowedFrom = next.previousStatuses();
+        int updated = 0;
+        if (!allowedFrom.isEmpty()) {
+            updated = expectedVersion == null
+                    ? orderRepository.updateStatus(orderId, allowedFrom, next)
+                    : orderRepository.updateStatus(orderId, allowedFrom, expectedVersion, next);
+        }
+        if (updated == 0) {
+            throw rejectedStatusChange(orderId, next, expectedVersion);
+        }
+
+        Order order = orderRepository.findByIdWithItems(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+        return new OrderResponse(order);
+    }
+
+    // Only on the failure path: find out which precondition did not hold
+    private RuntimeException rejectedStatusChange(Long orderId, OrderStatus next, Long expectedVersion) {
+        OrderRepository.StatusAndVersion current = orderRepository.findStatusAndVersionById(orderId).orElse(null);
+        if (current == null) {
+            return new OrderNotFoundException(orderId);
+        }
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            return new StaleOrderException(orderId, expectedVersion, current.getVersion());
+        }
+        return new InvalidStatusTransitionException(current.getStatus(), next);
+    }
+
+    /**
+     * Builds order items from the current menu in one pass.
+     *
+     * @throws UnavailableMenuItemException naming every requested item that is not on the menu
+     */
+    private List<OrderItem> priceItems(List<OrderItemRequest> itemRequests) {
+        MenuCacheService.MenuSnapshot menu = menuCacheService.currentSnapshot();
+        List<OrderItem> items = new ArrayList<>(itemRequests.size());
+        Set<Long> unavailable = new LinkedHashSet<>();
+        for (OrderItemRequest itemRequest : itemRequests) {
+            MenuItem menuItem = menu.getItem(itemRequest.getMenuItemId());
+            if (menuItem == null) {
+                unavailable.add(itemRequest.getMenuItemId());
+                continue;
+            }
+            OrderItem item = new OrderItem(menuItem.getId(), menuItem.getName(), itemRequest.getQuantity(), menuItem.getPrice());
+            item.setCategory(menuItem.getCategory());
+            items.add(item);
+        }
+        if (!unavailable.isEmpty()) {
+            throw new UnavailableMenuItemException(unavailable, menu.getVersion());
+        }
+        return items;
+    }
+
+    // The login and stateless token principals already carry the user id, so the foreign key needs no users query
+    private User resolveUser(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser authenticated) {
+            return userRepository.getReferenceById(authenticated.getUser().getId());
+        }
+        if (userDetails instanceof TokenPrincipal principal) {
+            return userRepository.getReferenceById(principal.getUserId());
+        }
+        User user = userRepository.findByEmail(userDetails.getUsername()).orElse(null);
+        if (user == null) {
+            logger.warn("User not found for email: {}", userDetails.getUsername());
+        }
+        return user;
+    }
+
+    public static class UnavailableMenuItemException extends RuntimeException {
+        private final Set<Long> menuItemIds;
+
+        public UnavailableMenuItemException(Set<Long> menuItemIds, long menuVersion) {
+            super("Menu items not available: " + menuItemIds + " (menu version " + menuVersion + ")");
+            this.menuItemIds = menuItemIds;
+        }
+
+        public Set<Long> getMenuItemIds() {
+            return menuItemIds;
+        }
+    }
+
+    public static class OrderNotFoundException extends RuntimeException {
+        public OrderNotFoundException(Long orderId) {
+            super("Order " + orderId + " not found");
+        }
+    }
+
+    public static class StaleOrderException extends RuntimeException {
+        public StaleOrderException(Long orderId, Long expectedVersion, Long currentVersion) {
+            super("Order " + orderId + " was changed by someone else (version " + currentVersion
+                    + ", expected " + expectedVersion + ")");
+        }
+    }
+
+    public static class InvalidStatusTransitionException extends RuntimeException {
+        public InvalidStatusTransitionException(OrderStatus current, OrderStatus next) {
+            super("Cannot change order from " + current + " to " + next);
+        }
+    }
+}
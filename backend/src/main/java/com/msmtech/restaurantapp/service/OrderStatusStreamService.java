@@ -0,0 +1,141 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.event.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Pushes order status changes to Server-Sent Events subscribers.
+ * Customers receive events for their own orders, staff receive every event.
+ * Subscriptions are async servlet requests, so an idle subscriber holds a connection but no Tomcat worker thread;
+ * events are queued per subscriber ({@link SseSubscriber}) and written on a small dedicated pool, never on the
+ * request that changed the order, so a client that stops reading delays only its own stream.
+ * <p>
+ * That pool deliberately uses platform threads: {@code SseEmitter.send} writes to the socket while holding
+ * the emitter's monitor, which would pin a virtual thread to its carrier for every slow client
+ * when the application runs with {@code spring.threads.virtual.enabled=true}.
+ */
+@Service
+public class OrderStatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusStreamService.class);
+
+    private static final String EVENT_NAME = "order-status";
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor sendExecutor;
+
+    private final Map<String, Set<SseSubscriber>> customerSubscribers = new ConcurrentHashMap<>();
+    private final Set<SseSubscriber> staffSubscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.orders.stream.timeout:1800000}")
+    private long streamTimeoutMillis;
+
+    @Value("${app.orders.stream.subscriber-buffer:32}")
+    private int subscriberBuffer;
+
+    public OrderStatusStreamService(ObjectMapper objectMapper,
+                                    @Value("${app.orders.stream.send-threads:2}") int sendThreads,
+                                    @Value("${app.orders.stream.send-queue-capacity:10000}") int sendQueueCapacity) {
+        this.objectMapper = objectMapper;
+        this.sendExecutor = SseSubscriber.newSendExecutor("order-stream-", sendThreads, sendQueueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    public SseEmitter subscribe(String email, boolean staff) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        SseSubscriber subscriber;
+        if (staff) {
+            subscriber = new SseSubscriber(emitter, sendExecutor, subscriberBuffer, staffSubscribers::remove);
+            staffSubscribers.add(subscriber);
+        } else {
+            // Add and remove inside the map operation, so an unsubscribe that empties the set cannot
+            // drop it from the map between another tab's lookup and its add
+            subscriber = new SseSubscriber(emitter, sendExecutor, subscriberBuffer, closed ->
+                    customerSubscribers.computeIfPresent(email, (key, subscribers) -> {
+                        subscribers.remove(closed);
+                        return subscribers.isEmpty() ? null : subscribers;
+                    }));
+            customerSubscribers.compute(email, (key, subscribers) -> {
+                Set<SseSubscriber> group = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                group.add(subscriber);
+                return group;
+            });
+        }
+
+        // Commit the response headers right away so the client knows the stream is open
+        subscriber.send(SseEmitter.event().comment("connected"));
+        logger.debug("Order stream subscriber added for {} (staff={})", email, staff);
+        return emitter;
+    }
+
+    // Only queues the event for each subscriber; the writes happen on the send pool
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        String payload;
+        try {
+            // Serialize once for every subscriber
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("orderId", event.getOrderId());
+            data.put("status", event.getStatus());
+            data.put("changedAt", event.getChangedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            payload = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize order status event for order {}", event.getOrderId(), e);
+            return;
+        }
+
+        String eventId = event.getOrderId() + ":" + event.getStatus();
+        // An event builder can only be sent once, so each subscriber gets its own
+        Consumer<SseSubscriber> deliver = subscriber ->
+                subscriber.send(SseEmitter.event().name(EVENT_NAME).id(eventId).data(payload));
+
+        staffSubscribers.forEach(deliver);
+        forEachCustomerSubscriber(event.getUserEmail(), deliver);
+        if (event.getCustomerEmail() != null && !event.getCustomerEmail().equals(event.getUserEmail())) {
+            forEachCustomerSubscriber(event.getCustomerEmail(), deliver);
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-interval:25000}")
+    public void sendHeartbeats() {
+        staffSubscribers.forEach(subscriber -> subscriber.send(SseEmitter.event().comment("heartbeat")));
+        customerSubscribers.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.send(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int getSubscriberCount() {
+        return staffSubscribers.size() + customerSubscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void forEachCustomerSubscriber(String email, Consumer<SseSubscriber> action) {
+        if (email == null) {
+            return;
+        }
+        Set<SseSubscriber> subscribers = customerSubscribers.get(email);
+        if (subscribers != null) {
+            subscribers.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.msmtech.restaurantapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing work (login verification, registration) on its own small pool.
+ * BCrypt costs tens of milliseconds of CPU per call; on Tomcat threads a burst of logins would
+ * occupy the workers that order traffic needs. Here the pool and its queue are bounded, and
+ * work that does not fit is refused immediately with {@link HashingBusyException} (answered as 429).
+ */
+@Service
+public class PasswordHashingService {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingService(@Value("${app.security.password-hashing.threads:0}") int threads,
+                                  @Value("${app.security.password-hashing.queue-capacity:50}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        // Default to half the CPUs so hashing can never take all of them from request handling
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Login and registration attempts refused because the hashing queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the task on the hashing pool.
+     *
+     * @throws HashingBusyException right away when the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingBusyException();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public static class HashingBusyException extends RuntimeException {
+        public HashingBusyException() {
+            super("Password hashing queue is full");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.msmtech.restaurantapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.msmtech.restaurantapp.entity.RefreshToken;
+import com.msmtech.restaurantapp.entity.User;
+import com.msmtech.restaurantapp.repository.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Long-lived, rotating refresh tokens. Exchanging one for a new access token costs one indexed lookup,
+ * one update and one insert, never a password hash.
+ * <p>
+ * Each refresh replaces the token with a new one from the same family. If a token that was already
+ * replaced is presented again, a copy of it is in someone else's hands, so the whole family is revoked
+ * and that login session ends. Hashes of tokens that are unknown, expired or from a revoked session are
+ * kept in a bounded in-memory cache, so repeated replays are refused without touching the database.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh.expiration:2592000000}")
+    private long refreshExpirationMillis;
+
+    @Value("${jwt.refresh.revoked-cache-size:100000}")
+    private long revokedCacheSize;
+
+    private Cache<String, Boolean> revokedTokens;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        // A revoked token can never become valid again; remembering it past its expiry is pointless
+        revokedTokens = Caffeine.newBuilder()
+                .maximumSize(revokedCacheSize)
+                .expireAfterWrite(Duration.ofMillis(refreshExpirationMillis))
+                .build();
+    }
+
+    // Starts a new family, e.g. on login. The family id doubles as the session id access tokens carry.
+    public IssuedToken issue(User user) {
+        String familyId = randomToken(16);
+        return new IssuedToken(issue(user, familyId), familyId);
+    }
+
+    /**
+     * Replaces the presented token with a new one for the same user.
+     *
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        if (revokedTokens.getIfPresent(tokenHash) != null) {
+            throw new InvalidRefreshTokenException("Refresh token is revoked");
+        }
+
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHashWithUser(tokenHash);
+        if (found.isEmpty()) {
+            revokedTokens.put(tokenHash, Boolean.TRUE);
+            throw new InvalidRefreshTokenException("Unknown refresh token");
+        }
+        RefreshToken current = found.get();
+
+        if (current.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            revokedTokens.put(tokenHash, Boolean.TRUE);
+            logger.warn("Refresh token reuse for user {}; revoked {} active token(s) of the session",
+                    current.getUser().getId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            revokedTokens.put(tokenHash, Boolean.TRUE);
+            throw new InvalidRefreshTokenException("Refresh token expired");
+        }
+        // Two refreshes racing with the same token: only one may win, the other is simply refused
+        // Not cached here: a replay of this token must reach the database once so its family is revoked
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+
+        User user = current.getUser();
+        return new Rotation(user, issue(user, current.getFamilyId()), current.getFamilyId());
+    }
+
+    // Logout: ends the session the token belongs to and returns its id, if the token was known
+    @Transactional
+    public Optional<String> revoke(String rawToken) {
+        String tokenHash = hash(rawToken);
+        Optional<String> familyId = refreshTokenRepository.findByTokenHashWithUser(tokenHash)
+                .map(RefreshToken::getFamilyId);
+        familyId.ifPresent(refreshTokenRepository::revokeFamily);
+        revokedTokens.put(tokenHash, Boolean.TRUE);
+        return familyId;
+    }
+
+    // Keeps the table small: expired rows can never be used again
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(User user, String familyId) {
+        String rawToken = randomToken(32);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMillis));
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), user, familyId, expiresAt));
+        return rawToken;
+    }
+
+    private static String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        RANDOM.nextBytes(buffer);
+        return ENCODER.encodeToString(buffer);
+    }
+
+    // Tokens are 256 random bits, so a fast unsalted hash is enough to keep the table useless to a reader
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class IssuedToken {
+        private final String refreshToken;
+        private final String sessionId;
+
+        IssuedToken(String refreshToken, String sessionId) {
+            this.refreshToken = refreshToken;
+            this.sessionId = sessionId;
+        }
+
+        public String getRefreshToken() { return refreshToken; }
+
+        public String getSessionId() { return sessionId; }
+    }
+
+    public static final class Rotation {
+        private final User user;
+        private final String refreshToken;
+        private final String sessionId;
+
+        Rotation(User user, String refreshToken, String sessionId) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+            this.sessionId = sessionId;
+        }
+
+        public User getUser() { return user; }
+
+        public String getRefreshToken() { return refreshToken; }
+
+        public String getSessionId() { return sessionId; }
+    }
+
+    public static class InvalidRefreshTokenException extends RuntimeException {
+        public InvalidRefreshTokenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.msmtech.restaurantapp.service;
+
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.entity.RollupPeriod;
+import com.msmtech.restaurantapp.entity.SalesRollup;
+import com.msmtech.restaurantapp.event.OrderCreatedEvent;
+import com.msmtech.restaurantapp.event.OrderStatusChangedEvent;
+import com.msmtech.restaurantapp.repository.SalesCategoryRollupRepository;
+import com.msmtech.restaurantapp.repository.SalesItemRollupRepository;
+import com.msmtech.restaurantapp.repository.SalesRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sales analytics served from rollup tables: orders, items sold and revenue per hour and per day, in total,
+ * per menu item and per category. A report reads one row per bucket (per item or category) in its range and never
+ * touches the orders table, so it costs the same however many orders there are.
+ * <p>
+ * Each order is added to its buckets by three upserts in the transaction that creates it, and taken out again
+ * in the transaction that cancels it. The rollups therefore always agree with the committed orders.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesCategoryRollupRepository salesCategoryRollupRepository;
+    private final SalesItemRollupRepository salesItemRollupRepository;
+
+    // Off only where the database cannot run the upserts (the H2 load-test profile)
+    @Value("${app.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analytics.max-buckets:2000}")
+    private long maxBuckets;
+
+    public SalesAnalyticsService(SalesRollupRepository salesRollupRepository,
+                                 SalesCategoryRollupRepository salesCategoryRollupRepository,
+                                 SalesItemRollupRepository salesItemRollupRepository) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.salesCategoryRollupRepository = salesCategoryRollupRepository;
+        this.salesItemRollupRepository = salesItemRollupRepository;
+    }
+
+    // Runs last in the order's transaction, so the bucket rows are locked only for the commit
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (enabled) {
+            apply(event.getOrder().getId(), 1);
+        }
+    }
+
+    // Only cancellation changes the figures; the lifecycle allows it once and never after COMPLETED
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (enabled && event.getStatus() == OrderStatus.CANCELLED) {
+            apply(event.getOrderId(), -1);
+        }
+    }
+
+    private void apply(Long orderId, int sign) {
+        salesRollupRepository.addOrder(orderId, sign);
+        salesCategoryRollupRepository.addOrder(orderId, sign);
+        salesItemRollupRepository.addOrder(orderId, sign);
+        logger.debug("Sales rollups updated for order {} ({})", orderId, sign > 0 ? "added" : "removed");
+    }
+
+    /**
+     * Buckets of {@code period} from {@code from} to {@code to}; both are widened to whole buckets.
+     * Buckets without sales are left out.
+     *
+     * @throws IllegalArgumentException if the range is empty or has more than {@code max-buckets} buckets
+     */
+    public List<SalesRollup> getSales(RollupPeriod period, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = period.truncate(from);
+        LocalDateTime end = period.ceil(to);
+        checkRange(start, end);
+        long buckets = period == RollupPeriod.DAY
+                ? Duration.between(start, end).toDays()
+                : Duration.between(start, end).toHours();
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Invalid range: " + buckets + " buckets, at most " + maxBuckets
+                    + " per request");
+        }
+        return salesRollupRepository.findSeries(period, start, end);
+    }
+
+    // Range widened to whole hours
+    public List<SalesCategoryRollupRepository.CategorySales> getCategorySales(LocalDateTime from, LocalDateTime to) {
+        Span span = Span.of(from, to);
+        return salesCategoryRollupRepository.sumByCategory(span.from, span.dayFrom, span.dayTo, span.to);
+    }
+
+    // Best sellers by quantity, optionally within one category; range widened to whole hours
+    public List<SalesItemRollupRepository.ItemSales> getTopItems(LocalDateTime from, LocalDateTime to,
+                                                                 String category, int limit) {
+        Span span = Span.of(from, to);
+        return category == null
+                ? salesItemRollupRepository.findTopItems(span.from, span.dayFrom, span.dayTo, span.to, Limit.of(limit))
+                : salesItemRollupRepository.findTopItemsInCategory(span.from, span.dayFrom, span.dayTo, span.to,
+                        category, Limit.of(limit));
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid range: from must be before to");
+        }
+    }
+
+    // [from, to) in whole hours, with the whole days inside it; dayFrom == dayTo when there are none
+    private static final class Span {
+        private final LocalDateTime from;
+        private final LocalDateTime dayFrom;
+        private final LocalDateTime dayTo;
+        private final LocalDateTime to;
+
+        private Span(LocalDateTime from, LocalDateTime dayFrom, LocalDateTime dayTo, LocalDateTime to) {
+            this.from = from;
+            this.dayFrom = dayFrom;
+            this.dayTo = dayTo;
+            this.to = to;
+        }
+
+        static Span of(LocalDateTime from, LocalDateTime to) {
+            LocalDateTime start = RollupPeriod.HOUR.truncate(from);
+            LocalDateTime end = RollupPeriod.HOUR.ceil(to);
+            checkRange(start, end);
+            LocalDateTime dayFrom = RollupPeriod.DAY.ceil(start);
+            LocalDateTime dayTo = RollupPeriod.DAY.truncate(end);
+            if (!dayFrom.isBefore(dayTo)) {
+                // Less than a whole day: hours only
+                dayFrom = end;
+                dayTo = end;
+            }
+            return new Span(start, dayFrom, dayTo, end);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.msmtech.restaurantapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * One open Server-Sent Events stream with its own bounded queue of events waiting to be written.
+ * At most one task per subscriber writes, in queue order, on a shared send pool, so a client that stops
+ * reading holds up its own stream and one pool thread, not the other subscribers.
+ * <p>
+ * A subscriber that falls {@code bufferSize} events behind, or whose write cannot be scheduled because the
+ * pool's queue is full, is closed; the client reconnects and catches up from the current state.
+ */
+final class SseSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseSubscriber.class);
+
+    private final SseEmitter emitter;
+    private final Executor sendExecutor;
+    private final int bufferSize;
+    private final Consumer<SseSubscriber> onClose;
+
+    // Guarded by this; events are only pending while a drain task is scheduled or running
+    private final Queue<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+
+    /**
+     * @param onClose removes the subscriber from wherever it is registered; runs once, however the stream ends
+     */
+    SseSubscriber(SseEmitter emitter, Executor sendExecutor, int bufferSize, Consumer<SseSubscriber> onClose) {
+        this.emitter = emitter;
+        this.sendExecutor = sendExecutor;
+        this.bufferSize = bufferSize;
+        this.onClose = onClose;
+        emitter.onCompletion(this::closed);
+        emitter.onTimeout(this::closed);
+        emitter.onError(error -> closed());
+    }
+
+    // Send pool for subscribers: a fixed number of platform threads and a bounded queue of write tasks
+    static ThreadPoolTaskExecutor newSendExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    // Queues the event and returns at once; the builder must not be shared with other subscribers
+    void send(SseEmitter.SseEventBuilder event) {
+        boolean behind;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            behind = pending.size() >= bufferSize;
+            if (!behind) {
+                pending.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+        }
+        if (behind) {
+            logger.debug("SSE subscriber fell {} events behind, closing its stream", bufferSize);
+            close(new IOException("Subscriber fell too far behind"));
+            return;
+        }
+        try {
+            sendExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("SSE send pool queue is full, closing a subscriber stream");
+            close(e);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (this) {
+                event = closed ? null : pending.poll();
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed
+                close(e);
+                return;
+            }
+        }
+    }
+
+    private void close(Exception cause) {
+        closed();
+        emitter.completeWithError(cause);
+    }
+
+    private void closed() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        onClose.accept(this);
+    }
+}
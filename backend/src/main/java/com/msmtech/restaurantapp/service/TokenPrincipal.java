@@ -0,0 +1,24 @@
+package com.msmtech.restaurantapp.service;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Principal built from the verified claims of an access token in stateless principal mode. It carries the
+ * user id from the token, so code that only needs the id (e.g. the foreign key of a new order) does not
+ * look the user up.
+ */
+public class TokenPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private final Long userId;
+
+    public TokenPrincipal(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,78 @@
+-- Schema as Hibernate created it (ddl-auto=update) before migrations were introduced.
+-- Databases that already have these tables are baselined at this version and skip this script.
+
+CREATE TABLE users (
+    id         bigserial    NOT NULL,
+    full_name  varchar(100) NOT NULL,
+    email      varchar(100) NOT NULL UNIQUE,
+    phone      varchar(10)  NOT NULL UNIQUE,
+    password   varchar(255) NOT NULL,
+    role       varchar(20)  NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE menu_items (
+    id          bigserial    NOT NULL,
+    name        varchar(100) NOT NULL,
+    description varchar(500),
+    price       float(53)    NOT NULL,
+    category    varchar(50)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Pooled ids: Hibernate reserves 50 ids per nextval
+CREATE SEQUENCE orders_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE orders (
+    id                   bigint       NOT NULL,
+    user_id              bigint,
+    customer_name        varchar(255) NOT NULL,
+    customer_email       varchar(255),
+    customer_phone       varchar(255) NOT NULL,
+    delivery_address     varchar(255),
+    special_instructions varchar(255),
+    total_amount         float(53)    NOT NULL,
+    status               varchar(20)  NOT NULL
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'PREPARING', 'COMPLETED', 'CANCELLED')),
+    version              bigint       NOT NULL DEFAULT 0,
+    created_at           timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE order_items (
+    id             bigint       NOT NULL,
+    order_id       bigint       NOT NULL,
+    menu_item_id   bigint       NOT NULL,
+    menu_item_name varchar(100) NOT NULL,
+    quantity       integer      NOT NULL,
+    price          float(53)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders
+);
+
+CREATE TABLE refresh_tokens (
+    id         bigserial    NOT NULL,
+    token_hash varchar(43)  NOT NULL UNIQUE,
+    user_id    bigint       NOT NULL,
+    family_id  varchar(22)  NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    revoked    boolean      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE idempotency_keys (
+    key_hash     varchar(43)  NOT NULL,
+    request_hash varchar(43)  NOT NULL,
+    order_id     bigint       NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    PRIMARY KEY (key_hash)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
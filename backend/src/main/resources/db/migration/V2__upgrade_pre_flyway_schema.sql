@@ -0,0 +1,31 @@
+-- Brings a database baselined from an older ddl-auto schema up to V1. Every statement is a no-op
+-- on a database that V1 created.
+
+-- Sequences created for IDENTITY-era ids hand out one id per nextval; Hibernate now pools 50
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         bigserial    NOT NULL,
+    token_hash varchar(43)  NOT NULL UNIQUE,
+    user_id    bigint       NOT NULL REFERENCES users,
+    family_id  varchar(22)  NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    revoked    boolean      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    key_hash     varchar(43)  NOT NULL,
+    request_hash varchar(43)  NOT NULL,
+    order_id     bigint       NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    PRIMARY KEY (key_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,27 @@
+-- One index per access path of OrderRepository, UserRepository and the menu search.
+-- RepositoryQueryPlanTest fails if a repository query plans a Seq Scan again.
+-- Orders are always read newest first and paged by (created_at, id), so the order lookups end in those
+-- two columns: the page comes straight off the index, scanned backwards, with no sort.
+
+-- Orders linked to an account: findByUserId/Email/Phone, findPageByUserId/Email/Phone, findOwnedPage
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at, id);
+
+-- Guest orders matched by email: findByCustomerEmail, the customer_email branch of findOwnedPage
+CREATE INDEX IF NOT EXISTS idx_orders_customer_email_created ON orders (customer_email, created_at, id);
+
+-- Staff listings: findAllByOrderByCreatedAtDesc, findPage
+CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at, id);
+
+-- Kitchen board: findByStatusInWithItems (the active statuses, oldest first)
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at, id);
+
+-- Every fetch join from orders to their items; PostgreSQL does not index foreign keys by itself
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+
+-- findByRole (email and phone already have unique indexes)
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+
+-- findByNameContainingIgnoreCase runs upper(name) LIKE upper('%term%'); a leading wildcard rules out
+-- a btree, a trigram index on the same expression serves it
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_menu_items_name_trgm ON menu_items USING gin (upper(name) gin_trgm_ops);
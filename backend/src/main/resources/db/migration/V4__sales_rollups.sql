@@ -0,0 +1,70 @@
+-- Sales analytics: running totals per hour and per day, kept current as orders are created or cancelled
+-- (SalesAnalyticsService). Cancelled orders are taken out again, so the rollups hold booked sales.
+-- Buckets start at the server's local time, like orders.created_at.
+
+-- Order items keep the category they were sold under, so an order is taken out of the same category rows
+-- it was added to even if the menu changed in between
+ALTER TABLE order_items ADD COLUMN category varchar(50);
+UPDATE order_items i SET category = m.category FROM menu_items m WHERE m.id = i.menu_item_id;
+
+CREATE TABLE sales_rollups (
+    period        varchar(4)    NOT NULL CHECK (period IN ('HOUR', 'DAY')),
+    bucket_start  timestamp(6)  NOT NULL,
+    order_count   bigint        NOT NULL,
+    item_quantity bigint        NOT NULL,
+    revenue       numeric(14,2) NOT NULL,
+    PRIMARY KEY (period, bucket_start)
+);
+
+CREATE TABLE sales_category_rollups (
+    period       varchar(4)    NOT NULL CHECK (period IN ('HOUR', 'DAY')),
+    bucket_start timestamp(6)  NOT NULL,
+    category     varchar(50)   NOT NULL,
+    order_count  bigint        NOT NULL,
+    quantity     bigint        NOT NULL,
+    revenue      numeric(14,2) NOT NULL,
+    PRIMARY KEY (period, bucket_start, category)
+);
+
+-- Name and category are as of the first sale in the bucket, so renamed or deleted menu items keep their history
+CREATE TABLE sales_item_rollups (
+    period         varchar(4)    NOT NULL CHECK (period IN ('HOUR', 'DAY')),
+    bucket_start   timestamp(6)  NOT NULL,
+    menu_item_id   bigint        NOT NULL,
+    menu_item_name varchar(100)  NOT NULL,
+    category       varchar(50)   NOT NULL,
+    order_count    bigint        NOT NULL,
+    quantity       bigint        NOT NULL,
+    revenue        numeric(14,2) NOT NULL,
+    PRIMARY KEY (period, bucket_start, menu_item_id)
+);
+
+-- Backfill from the orders placed so far
+INSERT INTO sales_rollups (period, bucket_start, order_count, item_quantity, revenue)
+SELECT p.period, date_trunc(lower(p.period), o.created_at),
+       count(DISTINCT o.id), sum(i.quantity), sum(round(CAST(i.price AS numeric) * i.quantity, 2))
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period)
+WHERE o.status <> 'CANCELLED'
+GROUP BY 1, 2;
+
+INSERT INTO sales_category_rollups (period, bucket_start, category, order_count, quantity, revenue)
+SELECT p.period, date_trunc(lower(p.period), o.created_at), coalesce(i.category, 'Other'),
+       count(DISTINCT o.id), sum(i.quantity), sum(round(CAST(i.price AS numeric) * i.quantity, 2))
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period)
+WHERE o.status <> 'CANCELLED'
+GROUP BY 1, 2, 3;
+
+INSERT INTO sales_item_rollups (period, bucket_start, menu_item_id, menu_item_name, category,
+                                order_count, quantity, revenue)
+SELECT p.period, date_trunc(lower(p.period), o.created_at), i.menu_item_id,
+       max(i.menu_item_name), coalesce(max(i.category), 'Other'),
+       count(DISTINCT o.id), sum(i.quantity), sum(round(CAST(i.price AS numeric) * i.quantity, 2))
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS p(period)
+WHERE o.status <> 'CANCELLED'
+GROUP BY 1, 2, 3;
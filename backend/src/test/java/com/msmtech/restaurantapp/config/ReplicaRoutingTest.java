@@ -0,0 +1,100 @@
+package com.msmtech.restaurantapp.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes between two pools on the same PostgreSQL database that differ only in {@code application_name},
+ * so every statement can tell which pool it ran on.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=${spring.datasource.url}",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=" + ReplicaRoutingTest.PRIMARY,
+        "app.datasource.replica.hikari.data-source-properties.ApplicationName=" + ReplicaRoutingTest.REPLICA,
+        // Lag is set by the tests, not by the scheduled check
+        "app.datasource.replica.check-interval=3600000"
+})
+class ReplicaRoutingTest {
+
+    static final String PRIMARY = "restaurant-primary";
+    static final String REPLICA = "restaurant-replica";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @AfterEach
+    void resetLag() {
+        replicaLagMonitor.update(0);
+    }
+
+    @Test
+    void lagCheckAcceptsServerThatIsNotInRecovery() {
+        replicaLagMonitor.update(-1);
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        assertEquals(0, replicaLagMonitor.getLagMillis());
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        replicaLagMonitor.update(0);
+        assertEquals(REPLICA, applicationName(true));
+        assertEquals(PRIMARY, applicationName(false));
+    }
+
+    @Test
+    void laggingOrUnknownReplicaFallsBackToPrimary() {
+        replicaLagMonitor.update(60_000);
+        assertEquals(PRIMARY, applicationName(true));
+
+        replicaLagMonitor.update(-1);
+        assertEquals(PRIMARY, applicationName(true));
+
+        replicaLagMonitor.update(0);
+        assertEquals(REPLICA, applicationName(true));
+    }
+
+    // Open-in-view keeps one EntityManager for the whole request; a write after a read must still reach the primary
+    @Test
+    void transactionsSharingAnEntityManagerAreRoutedOnTheirOwn() {
+        replicaLagMonitor.update(0);
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            assertEquals(REPLICA, applicationName(true));
+            assertEquals(PRIMARY, applicationName(false));
+            assertEquals(REPLICA, applicationName(true));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+    }
+
+    private String applicationName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> (String) entityManager
+                .createNativeQuery("SELECT current_setting('application_name')")
+                .getSingleResult());
+    }
+}
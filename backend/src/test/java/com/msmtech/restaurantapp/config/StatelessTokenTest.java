@@ -0,0 +1,101 @@
+package com.msmtech.restaurantapp.config;
+
+import com.msmtech.restaurantapp.entity.User;
+import com.msmtech.restaurantapp.repository.UserRepository;
+import com.msmtech.restaurantapp.service.RefreshTokenService;
+import com.msmtech.restaurantapp.service.TokenPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stateless principal mode: the principal carries the user id from the token, and logging out ends the
+ * access tokens of the session although they have not expired.
+ */
+@SpringBootTest(properties = "jwt.stateless-principal.enabled=true")
+@AutoConfigureMockMvc
+@Transactional
+class StatelessTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void principalCarriesUserIdFromToken() throws Exception {
+        User user = createUser();
+        String accessToken = jwtUtil.generateToken(user, refreshTokenService.issue(user).getSessionId());
+
+        TokenPrincipal principal = assertInstanceOf(TokenPrincipal.class, authenticate(accessToken).getPrincipal());
+        assertEquals(user.getId(), principal.getUserId());
+        assertEquals(user.getEmail(), principal.getUsername());
+    }
+
+    @Test
+    void logoutRevokesAccessTokensOfTheSession() throws Exception {
+        User user = createUser();
+        RefreshTokenService.IssuedToken loggedOut = refreshTokenService.issue(user);
+        RefreshTokenService.IssuedToken otherDevice = refreshTokenService.issue(user);
+        String accessToken = jwtUtil.generateToken(user, loggedOut.getSessionId());
+        String otherAccessToken = jwtUtil.generateToken(user, otherDevice.getSessionId());
+        // Verified once, so the token is also in the token cache
+        authenticate(accessToken);
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + loggedOut.getRefreshToken() + "\"}"))
+                .andExpect(status().isNoContent());
+
+        assertNull(authenticate(accessToken));
+        assertInstanceOf(TokenPrincipal.class, authenticate(otherAccessToken).getPrincipal());
+    }
+
+    // Runs the request through the filter and returns the authentication it established, if any
+    private Authentication authenticate(String accessToken) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my-orders");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        return authentication.get();
+    }
+
+    private User createUser() {
+        return userRepository.save(new User("stateless@example.com", "not-a-hash", "Stateless Test", "0000000001", "CUSTOMER"));
+    }
+}
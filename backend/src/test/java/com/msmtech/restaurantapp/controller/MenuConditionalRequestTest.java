@@ -0,0 +1,50 @@
+package com.msmtech.restaurantapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/menu answers 304 under the weak comparison If-None-Match calls for.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MenuConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void currentTagGivesNotModified() throws Exception {
+        String etag = currentEtag();
+
+        assertNotModified(etag);
+        // As forwarded by a proxy that re-compressed the body
+        assertNotModified("W/" + etag);
+        assertNotModified("\"something-else\", W/" + etag);
+        assertNotModified("*");
+    }
+
+    @Test
+    void otherTagGivesBody() throws Exception {
+        mockMvc.perform(get("/api/menu").header(HttpHeaders.IF_NONE_MATCH, "W/\"something-else\""))
+                .andExpect(status().isOk());
+    }
+
+    private String currentEtag() throws Exception {
+        return mockMvc.perform(get("/api/menu"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String ifNoneMatch) throws Exception {
+        mockMvc.perform(get("/api/menu").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andExpect(status().isNotModified());
+    }
+}
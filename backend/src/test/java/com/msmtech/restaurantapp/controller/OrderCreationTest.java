@@ -0,0 +1,104 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/orders against the database: items are priced from the menu, not from what the client sent.
+ */
+// The orders are deleted again afterwards, so they must not reach the sales rollups
+@SpringBootTest(properties = "app.analytics.enabled=false")
+@AutoConfigureMockMvc
+class OrderCreationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+    private final List<Long> createdMenuItemIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        // Saved and deleted through the repository, so the menu snapshot follows along
+        menuRepository.deleteAllById(createdMenuItemIds);
+    }
+
+    @Test
+    void pricesItemsFromMenuAndIgnoresClientValues() throws Exception {
+        MenuItem item = createMenuItem("Pricing Test Soup", 0.1);
+
+        String body = mockMvc.perform(createOrder(
+                        "{\"menuItemId\":" + item.getId() + ",\"menuItemName\":\"Free Lunch\",\"quantity\":3,\"price\":0.01}", 0.03))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items[0].menuItemName").value("Pricing Test Soup"))
+                .andExpect(jsonPath("$.items[0].price").value(0.1))
+                .andExpect(jsonPath("$.items[0].itemTotal").value(0.3))
+                // 3 * 0.1 summed as doubles would be 0.30000000000000004
+                .andExpect(jsonPath("$.totalAmount").value(0.3))
+                .andReturn().getResponse().getContentAsString();
+        Long orderId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        createdOrderIds.add(orderId);
+
+        assertEquals(0.3, orderRepository.findById(orderId).orElseThrow().getTotalAmount());
+    }
+
+    @Test
+    void unknownOrRetiredItemsAreRejectedAndNothingIsStored() throws Exception {
+        MenuItem available = createMenuItem("Pricing Test Bread", 2.5);
+        MenuItem retired = createMenuItem("Pricing Test Special", 4.0);
+        menuRepository.delete(retired);
+        long unknownId = Long.MAX_VALUE;
+        long ordersBefore = orderRepository.count();
+
+        mockMvc.perform(createOrder(
+                        "{\"menuItemId\":" + available.getId() + ",\"quantity\":1},"
+                                + "{\"menuItemId\":" + retired.getId() + ",\"quantity\":1},"
+                                + "{\"menuItemId\":" + unknownId + ",\"quantity\":2}", null))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("[" + retired.getId() + ", " + unknownId + "]")));
+
+        assertEquals(ordersBefore, orderRepository.count());
+    }
+
+    private MockHttpServletRequestBuilder createOrder(String items, Double clientTotal) {
+        return post("/api/orders")
+                .with(user("pricing@example.com").roles("CUSTOMER"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[" + items + "],\"customerName\":\"Pricing Test\",\"customerPhone\":\"0000000000\""
+                        + (clientTotal != null ? ",\"totalAmount\":" + clientTotal : "") + "}");
+    }
+
+    private MenuItem createMenuItem(String name, double price) {
+        MenuItem item = menuRepository.save(new MenuItem(name, null, price, "Test"));
+        createdMenuItemIds.add(item.getId());
+        return item;
+    }
+}
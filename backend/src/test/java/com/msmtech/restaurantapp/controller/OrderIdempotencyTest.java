@@ -0,0 +1,192 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.event.MenuItemChangedEvent;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import com.msmtech.restaurantapp.service.MenuCacheService;
+import com.msmtech.restaurantapp.service.OrderIdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * POST /api/orders with an Idempotency-Key against the database: replays, key reuse, concurrent duplicates
+ * and retries after a failed attempt.
+ */
+// The orders are deleted again afterwards, so they must not reach the sales rollups
+@SpringBootTest(properties = "app.analytics.enabled=false")
+@AutoConfigureMockMvc
+class OrderIdempotencyTest {
+
+    private static final String REPLAYED = "Idempotent-Replayed";
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Set<Long> createdOrderIds = new HashSet<>();
+    private final List<Long> createdMenuItemIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        menuRepository.deleteAllById(createdMenuItemIds);
+    }
+
+    @Test
+    void repeatedSubmissionReplaysFirstOrder() throws Exception {
+        Long menuItemId = createMenuItem().getId();
+        String key = UUID.randomUUID().toString();
+        long ordersBefore = orderRepository.count();
+        long replayedBefore = orderIdempotencyService.getReplayed();
+
+        MockHttpServletResponse first = submit(key, menuItemId, 1);
+        MockHttpServletResponse retry = submit(key, menuItemId, 1);
+
+        assertEquals(201, first.getStatus());
+        assertEquals("false", first.getHeader(REPLAYED));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(REPLAYED));
+        assertEquals(orderId(first), orderId(retry));
+        assertEquals(ordersBefore + 1, orderRepository.count());
+        assertEquals(replayedBefore + 1, orderIdempotencyService.getReplayed());
+    }
+
+    @Test
+    void keyReusedForDifferentOrderIsRejected() throws Exception {
+        Long menuItemId = createMenuItem().getId();
+        String key = UUID.randomUUID().toString();
+        long rejectedBefore = orderIdempotencyService.getRejected();
+
+        orderId(submit(key, menuItemId, 1));
+        MockHttpServletResponse reused = submit(key, menuItemId, 2);
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(rejectedBefore + 1, orderIdempotencyService.getRejected());
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneOrder() throws Exception {
+        Long menuItemId = createMenuItem().getId();
+        String key = UUID.randomUUID().toString();
+        long ordersBefore = orderRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < DUPLICATES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return submit(key, menuItemId, 1);
+                }));
+            }
+            start.countDown();
+            for (Future<MockHttpServletResponse> future : futures) {
+                responses.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Set<Long> orderIds = new HashSet<>();
+        int created = 0;
+        for (MockHttpServletResponse response : responses) {
+            assertEquals(201, response.getStatus());
+            orderIds.add(orderId(response));
+            if ("false".equals(response.getHeader(REPLAYED))) {
+                created++;
+            }
+        }
+        assertEquals(1, orderIds.size());
+        assertEquals(1, created);
+        assertEquals(ordersBefore + 1, orderRepository.count());
+    }
+
+    @Test
+    void keyIsForgottenAfterFailedAttempt() throws Exception {
+        menuCacheService.currentSnapshot();
+        // Inserted behind the menu cache's back, so the snapshot does not offer it yet and the first attempt fails
+        Long menuItemId = jdbcTemplate.queryForObject(
+                "INSERT INTO menu_items (name, price, category) VALUES ('Idempotency Test Late Dish', 3.0, 'Test') RETURNING id",
+                Long.class);
+        createdMenuItemIds.add(menuItemId);
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(400, submit(key, menuItemId, 1).getStatus());
+
+        eventPublisher.publishEvent(new MenuItemChangedEvent(menuItemId));
+        MockHttpServletResponse retry = submit(key, menuItemId, 1);
+
+        // Runs again instead of replaying the failure
+        assertEquals(201, retry.getStatus());
+        assertEquals("false", retry.getHeader(REPLAYED));
+        orderId(retry);
+    }
+
+    private MockHttpServletResponse submit(String key, Long menuItemId, int quantity) throws Exception {
+        return mockMvc.perform(post("/api/orders")
+                        .with(user("idempotency@example.com").roles("CUSTOMER"))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"menuItemId\":" + menuItemId + ",\"quantity\":" + quantity + "}],"
+                                + "\"customerName\":\"Idempotency Test\",\"customerPhone\":\"0000000000\"}"))
+                .andReturn().getResponse();
+    }
+
+    // Remembers the order for clean-up
+    private Long orderId(MockHttpServletResponse response) throws Exception {
+        assertEquals(201, response.getStatus());
+        Long orderId = ((Number) JsonPath.read(response.getContentAsString(), "$.id")).longValue();
+        createdOrderIds.add(orderId);
+        return orderId;
+    }
+
+    private MenuItem createMenuItem() {
+        MenuItem item = menuRepository.save(new MenuItem("Idempotency Test Dish", null, 5.0, "Test"));
+        createdMenuItemIds.add(item.getId());
+        return item;
+    }
+}
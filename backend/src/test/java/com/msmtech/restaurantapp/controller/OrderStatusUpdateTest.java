@@ -0,0 +1,147 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PUT /api/orders/{id}/status against the database: the transition table, If-Match and concurrent
+ * updates racing on the same version.
+ */
+// Orders are inserted directly, so they were never added to the sales rollups
+@SpringBootTest(properties = "app.analytics.enabled=false")
+@AutoConfigureMockMvc
+class OrderStatusUpdateTest {
+
+    // Written out rather than taken from OrderStatus, so a change to the table has to change this test too
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = new EnumMap<>(Map.of(
+            OrderStatus.PENDING, EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.CANCELLED),
+            OrderStatus.CONFIRMED, EnumSet.of(OrderStatus.PREPARING, OrderStatus.CANCELLED),
+            OrderStatus.PREPARING, EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED),
+            OrderStatus.COMPLETED, EnumSet.noneOf(OrderStatus.class),
+            OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class)));
+
+    private static final int RACES = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteOrders() {
+        orderRepository.deleteAllById(createdOrderIds);
+    }
+
+    @Test
+    void appliesAllowedTransitionsAndRejectsOthersWithConflict() throws Exception {
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                Order order = createOrder(from);
+                boolean allowed = ALLOWED.get(from).contains(to);
+
+                mockMvc.perform(statusUpdate(order.getId(), to))
+                        .andExpect(status().is(allowed ? 200 : 409));
+
+                Order stored = orderRepository.findById(order.getId()).orElseThrow();
+                assertEquals(allowed ? to : from, stored.getStatus(), from + " -> " + to);
+                assertEquals(allowed ? 1L : 0L, stored.getVersion(), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void checksIfMatchAgainstCurrentVersion() throws Exception {
+        Order order = createOrder(OrderStatus.PENDING);
+
+        mockMvc.perform(statusUpdate(order.getId(), OrderStatus.CONFIRMED).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        // Someone holding the old version may not overwrite the change
+        mockMvc.perform(statusUpdate(order.getId(), OrderStatus.CANCELLED).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void unknownOrderIsNotFound() throws Exception {
+        mockMvc.perform(statusUpdate(Long.MAX_VALUE, OrderStatus.CONFIRMED))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void onlyOneOfTwoConcurrentUpdatesFromSameVersionApplies() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int race = 0; race < RACES; race++) {
+                Order order = createOrder(OrderStatus.PENDING);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Integer> confirm = executor.submit(racingUpdate(start, order.getId(), OrderStatus.CONFIRMED));
+                Future<Integer> cancel = executor.submit(racingUpdate(start, order.getId(), OrderStatus.CANCELLED));
+                start.countDown();
+
+                List<Integer> statuses = new ArrayList<>(List.of(confirm.get(), cancel.get()));
+                statuses.sort(null);
+                assertEquals(List.of(200, 412), statuses);
+
+                Order stored = orderRepository.findById(order.getId()).orElseThrow();
+                assertEquals(1L, stored.getVersion());
+                assertEquals(confirm.get() == 200 ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED, stored.getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Integer> racingUpdate(CountDownLatch start, Long orderId, OrderStatus next) {
+        return () -> {
+            start.await();
+            return mockMvc.perform(statusUpdate(orderId, next).header(HttpHeaders.IF_MATCH, "\"0\""))
+                    .andReturn().getResponse().getStatus();
+        };
+    }
+
+    private MockHttpServletRequestBuilder statusUpdate(Long orderId, OrderStatus next) {
+        return put("/api/orders/{id}/status", orderId)
+                .with(user("staff@example.com").roles("STAFF"))
+                .content(next.name());
+    }
+
+    private Order createOrder(OrderStatus status) {
+        Order order = new Order(null, "Status Test", "0000000000", "1 Test Street", null, new ArrayList<>());
+        order.setStatus(status);
+        order = orderRepository.save(order);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+}
@@ -0,0 +1,236 @@
+package com.msmtech.restaurantapp.controller;
+
+import com.msmtech.restaurantapp.dto.OrderItemRequest;
+import com.msmtech.restaurantapp.dto.OrderRequest;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.event.OrderCreatedEvent;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import com.msmtech.restaurantapp.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sales rollups against the database: orders created and cancelled through {@link OrderService}, read back
+ * through /api/analytics for ranges of hours only and ranges mixing partial and whole days.
+ * <p>
+ * The orders are dated in February 2001 so no other data shares their buckets; the rollup rows of that month
+ * belong to this test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SalesAnalyticsTest {
+
+    private static final String CATEGORY = "Rollup Test";
+    private static final String WINDOW_START = "2001-02-01";
+    private static final String WINDOW_END = "2001-03-01";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Backdating backdating;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+    private final List<Long> createdMenuItemIds = new ArrayList<>();
+    private MenuItem soup;
+    private MenuItem pie;
+
+    @BeforeEach
+    void createMenuAndOrders() {
+        deleteRollups();
+        soup = createMenuItem("Rollup Test Soup", 2.5);
+        pie = createMenuItem("Rollup Test Pie", 4.0);
+
+        // 2001-02-03: 22:15 soup x2 (5.00), 23:30 pie x1 (4.00, cancelled below)
+        createOrder(LocalDateTime.of(2001, 2, 3, 22, 15), item(soup, 2));
+        Long cancelled = createOrder(LocalDateTime.of(2001, 2, 3, 23, 30), item(pie, 1));
+        // 2001-02-04 10:45: soup x1 and pie x2 (10.50)
+        createOrder(LocalDateTime.of(2001, 2, 4, 10, 45), item(soup, 1), item(pie, 2));
+        // 2001-02-05 01:10: pie x2 (8.00)
+        createOrder(LocalDateTime.of(2001, 2, 5, 1, 10), item(pie, 2));
+
+        // Cancelled years after the hour it was placed in; it must leave that hour and day, not the current ones
+        orderService.updateStatus(cancelled, OrderStatus.CANCELLED, null);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        menuRepository.deleteAllById(createdMenuItemIds);
+        deleteRollups();
+    }
+
+    @Test
+    void hourlySeriesLeavesOutCancelledHour() throws Exception {
+        analytics("/sales?period=HOUR&from=2001-02-03T22:00:00&to=2001-02-04T00:00:00")
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bucketStart").value("2001-02-03T22:00:00"))
+                .andExpect(jsonPath("$[0].orderCount").value(1))
+                .andExpect(jsonPath("$[0].itemQuantity").value(2))
+                .andExpect(jsonPath("$[0].revenue").value(5.0));
+    }
+
+    @Test
+    void dailySeriesCountsEachOrderOnceOnItsDay() throws Exception {
+        analytics("/sales?period=DAY&from=2001-02-03T00:00:00&to=2001-02-06T00:00:00")
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].orderCount").value(1))
+                .andExpect(jsonPath("$[0].revenue").value(5.0))
+                .andExpect(jsonPath("$[1].orderCount").value(1))
+                .andExpect(jsonPath("$[1].itemQuantity").value(3))
+                .andExpect(jsonPath("$[1].revenue").value(10.5))
+                .andExpect(jsonPath("$[2].bucketStart").value("2001-02-05T00:00:00"))
+                .andExpect(jsonPath("$[2].revenue").value(8.0));
+    }
+
+    @Test
+    void hourOnlyRangeReadsHourBuckets() throws Exception {
+        assertCategory("2001-02-03T22:00:00", "2001-02-04T00:00:00", 1, 2, 5.0);
+        // Widened to whole hours: 22:59 still ends after the 22:00 bucket
+        assertCategory("2001-02-03T22:30:00", "2001-02-03T22:59:00", 1, 2, 5.0);
+        assertCategory("2001-02-03T23:00:00", "2001-02-04T00:00:00", 0, 0, 0.0);
+    }
+
+    @Test
+    void rangeMixesPartialAndWholeDays() throws Exception {
+        // Hours 22-23 of the 3rd, the whole 4th, hours 00-01 of the 5th
+        assertCategory("2001-02-03T22:00:00", "2001-02-05T02:00:00", 3, 7, 23.5);
+        // The leading hours cut off: the 3rd's soup is left out
+        assertCategory("2001-02-03T23:00:00", "2001-02-05T02:00:00", 2, 5, 18.5);
+        // The trailing hours cut off: the 5th's pie is left out
+        assertCategory("2001-02-03T22:00:00", "2001-02-05T01:00:00", 2, 5, 15.5);
+
+        analytics("/items?category=" + CATEGORY + "&from=2001-02-03T22:00:00&to=2001-02-05T02:00:00")
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].menuItemId").value(pie.getId()))
+                .andExpect(jsonPath("$[0].orderCount").value(2))
+                .andExpect(jsonPath("$[0].quantity").value(4))
+                .andExpect(jsonPath("$[0].revenue").value(16.0))
+                .andExpect(jsonPath("$[1].menuItemId").value(soup.getId()))
+                .andExpect(jsonPath("$[1].quantity").value(3))
+                .andExpect(jsonPath("$[1].revenue").value(7.5));
+    }
+
+    @Test
+    void seriesLongerThanMaxBucketsIsRejected() throws Exception {
+        // 151 days of hours, above the default of 2000 buckets
+        mockMvc.perform(get("/api/analytics/sales?period=HOUR&from=2001-01-01T00:00:00&to=2001-06-01T00:00:00")
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void assertCategory(String from, String to, int orders, int quantity, double revenue) throws Exception {
+        ResultActions result = analytics("/categories?from=" + from + "&to=" + to);
+        if (orders == 0) {
+            result.andExpect(jsonPath("$[?(@.category == '" + CATEGORY + "')]", hasSize(0)));
+            return;
+        }
+        result.andExpect(jsonPath("$[?(@.category == '" + CATEGORY + "')].orderCount").value(orders))
+                .andExpect(jsonPath("$[?(@.category == '" + CATEGORY + "')].quantity").value(quantity))
+                .andExpect(jsonPath("$[?(@.category == '" + CATEGORY + "')].revenue").value(revenue));
+    }
+
+    private ResultActions analytics(String path) throws Exception {
+        return mockMvc.perform(get("/api/analytics" + path).with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    private Long createOrder(LocalDateTime createdAt, OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest(List.of(items), null, null, null);
+        request.setCustomerName("Rollup Test");
+        request.setCustomerPhone("0000000000");
+        UserDetails owner = User.withUsername("rollups@example.com").password("unused").roles("CUSTOMER").build();
+        backdating.createdAt = createdAt;
+        try {
+            Long orderId = orderService.createOrder(request, owner).getId();
+            createdOrderIds.add(orderId);
+            return orderId;
+        } finally {
+            backdating.createdAt = null;
+        }
+    }
+
+    private static OrderItemRequest item(MenuItem menuItem, int quantity) {
+        return new OrderItemRequest(menuItem.getId(), null, quantity, null);
+    }
+
+    private MenuItem createMenuItem(String name, double price) {
+        MenuItem item = menuRepository.save(new MenuItem(name, null, price, CATEGORY));
+        createdMenuItemIds.add(item.getId());
+        return item;
+    }
+
+    private void deleteRollups() {
+        for (String table : List.of("sales_rollups", "sales_category_rollups", "sales_item_rollups")) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE bucket_start >= CAST(? AS timestamp) "
+                    + "AND bucket_start < CAST(? AS timestamp)", WINDOW_START, WINDOW_END);
+        }
+    }
+
+    @TestConfiguration
+    static class BackdatingConfig {
+        @Bean
+        Backdating backdating(EntityManager entityManager) {
+            return new Backdating(entityManager);
+        }
+    }
+
+    // Moves a new order to another time in its own transaction, before the rollups read its created_at
+    static class Backdating {
+        private final EntityManager entityManager;
+        private volatile LocalDateTime createdAt;
+
+        Backdating(EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public void onOrderCreated(OrderCreatedEvent event) {
+            if (createdAt != null) {
+                entityManager.find(com.msmtech.restaurantapp.entity.Order.class, event.getOrder().getId()).setCreatedAt(createdAt);
+                entityManager.flush();
+            }
+        }
+    }
+}
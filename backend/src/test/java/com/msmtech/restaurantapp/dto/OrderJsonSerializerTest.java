@@ -0,0 +1,63 @@
+package com.msmtech.restaurantapp.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderItem;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The streaming serializer must produce exactly the JSON of {@link OrderResponse}, field order included,
+ * so clients cannot tell which path an endpoint uses.
+ */
+class OrderJsonSerializerTest {
+
+    // Same Jackson defaults Spring Boot applies to the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void writesSameJsonAsOrderResponse() throws Exception {
+        Order order = order(List.of(item(1L, "Burger \"Deluxe\"", 2, 8.5), item(2L, "Fries", 1, 3.25)));
+        order.setStatus(OrderStatus.PREPARING);
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 1, 18, 30, 5, 120_000_000));
+
+        assertSameJson(order);
+    }
+
+    @Test
+    void writesNullsAndEmptyItemsLikeOrderResponse() throws Exception {
+        Order order = new Order(null, "Jane Customer", "5550001111", null, null, new ArrayList<>());
+        order.setId(7L);
+
+        assertSameJson(order);
+    }
+
+    // Pages are where endpoints use the serializer
+    private void assertSameJson(Order order) throws Exception {
+        String expected = objectMapper.writeValueAsString(new OrderResponse(order));
+        String actual = objectMapper.writeValueAsString(new OrderPageResponse(List.of(order), "next"));
+        assertEquals("{\"items\":[" + expected + "],\"nextCursor\":\"next\"}", actual);
+    }
+
+    private static Order order(List<OrderItem> items) {
+        Order order = new Order(null, "Jane Customer", "5550001111", "12 Main Street", "No onions", new ArrayList<>());
+        order.setId(42L);
+        order.setCustomerEmail("jane@example.com");
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 1, 18, 30));
+        order.setItems(new ArrayList<>(items));
+        return order;
+    }
+
+    private static OrderItem item(Long id, String name, int quantity, double price) {
+        OrderItem item = new OrderItem(id, name, quantity, price);
+        item.setId(id);
+        return item;
+    }
+}
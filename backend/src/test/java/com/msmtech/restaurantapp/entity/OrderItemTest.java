@@ -0,0 +1,40 @@
+package com.msmtech.restaurantapp.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The item total computed in cents must be the same double as the exact decimal line total.
+ */
+class OrderItemTest {
+
+    @Test
+    void itemTotalInCentsMatchesDecimalLineTotal() {
+        for (long cents = 0; cents <= 100_000; cents++) {
+            for (int quantity = 1; quantity <= 12; quantity++) {
+                assertSameTotal(cents / 100.0, quantity);
+            }
+        }
+        // Around the bounds of the cents path
+        for (long cents = 99_999_000L; cents <= 100_001_000L; cents++) {
+            assertSameTotal(cents / 100.0, 999_999);
+            assertSameTotal(cents / 100.0, 1_000_001);
+        }
+    }
+
+    @Test
+    void itemTotalOfOtherPricesMatchesDecimalLineTotal() {
+        assertSameTotal(0.1, 3);
+        assertSameTotal(0.125, 3);
+        assertSameTotal(1.0 / 3, 7);
+        assertSameTotal(4.005, 2);
+        assertSameTotal(1e-9, 5);
+        assertSameTotal(123456789.99, 3);
+    }
+
+    private static void assertSameTotal(double price, int quantity) {
+        OrderItem item = new OrderItem(1L, "Item", quantity, price);
+        assertEquals(item.getLineTotal().doubleValue(), item.getItemTotal(), () -> price + " x " + quantity);
+    }
+}
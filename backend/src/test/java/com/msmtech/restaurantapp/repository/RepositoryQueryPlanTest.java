@@ -0,0 +1,226 @@
+package com.msmtech.restaurantapp.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.entity.RollupPeriod;
+import com.msmtech.restaurantapp.service.OrderExportService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query against the migrated PostgreSQL schema, records the SQL Hibernate sends,
+ * and fails if the plan of any statement still reads a whole table.
+ * <p>
+ * Plans are generic ({@code EXPLAIN (GENERIC_PLAN)}, PostgreSQL 16+) and sequential scans are disabled
+ * while planning, so the result does not depend on how many rows the test database holds: a table
+ * without a usable index is the only reason left for a {@code Seq Scan}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.msmtech.restaurantapp.repository.RepositoryQueryPlanTest$RecordingInspector")
+@Transactional
+class RepositoryQueryPlanTest {
+
+    private static final String EMAIL = "plan@example.com";
+    private static final String PHONE = "0000000000";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SalesCategoryRollupRepository salesCategoryRollupRepository;
+
+    @Autowired
+    private SalesItemRollupRepository salesItemRollupRepository;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void orderQueriesUseIndexes() throws Exception {
+        assertNoSeqScan(() -> {
+            orderRepository.findByUserEmail(EMAIL);
+            orderRepository.findByCustomerEmail(EMAIL);
+            orderRepository.findByUserId(1L);
+            orderRepository.findByUserPhone(PHONE);
+            orderRepository.findAllByOrderByCreatedAtDesc();
+            orderRepository.findByIdWithItems(1L);
+            orderRepository.findStatusAndVersionById(1L);
+            orderRepository.updateStatus(1L, OrderStatus.CONFIRMED.previousStatuses(), OrderStatus.CONFIRMED);
+            orderRepository.updateStatus(1L, OrderStatus.CONFIRMED.previousStatuses(), 0L, OrderStatus.CONFIRMED);
+            orderRepository.findByStatusInWithItems(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING));
+            orderRepository.findOwnedPage(EMAIL, CREATED_AT, 1L, 20);
+            orderRepository.findPage(CREATED_AT, 1L, 20);
+            orderRepository.findPageByUserEmail(EMAIL, CREATED_AT, 1L, 20);
+            orderRepository.findPageByUserPhone(PHONE, CREATED_AT, 1L, 20);
+            orderRepository.findPageByUserId(1L, CREATED_AT, 1L, 20);
+        });
+    }
+
+    @Test
+    void userQueriesUseIndexes() throws Exception {
+        assertNoSeqScan(() -> {
+            userRepository.findByEmail(EMAIL);
+            userRepository.findByPhone(PHONE);
+            userRepository.findByEmailOrPhone(EMAIL);
+            userRepository.existsByEmail(EMAIL);
+            userRepository.existsByPhone(PHONE);
+            userRepository.existsByEmailOrPhone(EMAIL, PHONE);
+            userRepository.findByRole("STAFF");
+            userRepository.updatePassword(1L, "hash");
+        });
+    }
+
+    @Test
+    void menuSearchUsesTrigramIndex() throws Exception {
+        assertNoSeqScan(() -> menuRepository.findByNameContainingIgnoreCase("burg"));
+    }
+
+    @Test
+    void salesRollupQueriesUseIndexes() throws Exception {
+        LocalDateTime dayFrom = CREATED_AT.plusHours(12);
+        LocalDateTime dayTo = dayFrom.plusDays(7);
+        assertNoSeqScan(() -> {
+            salesRollupRepository.addOrder(1L, 1);
+            salesCategoryRollupRepository.addOrder(1L, 1);
+            salesItemRollupRepository.addOrder(1L, 1);
+            salesRollupRepository.findSeries(RollupPeriod.DAY, CREATED_AT, dayTo);
+            salesCategoryRollupRepository.sumByCategory(CREATED_AT, dayFrom, dayTo, dayTo.plusHours(3));
+            salesItemRollupRepository.findTopItems(CREATED_AT, dayFrom, dayTo, dayTo.plusHours(3), Limit.of(20));
+            salesItemRollupRepository.findTopItemsInCategory(CREATED_AT, dayFrom, dayTo, dayTo.plusHours(3), "Mains", Limit.of(20));
+        });
+    }
+
+    @Test
+    void orderExportUsesIndexes() throws Exception {
+        assertNoSeqScan(() -> {
+            try {
+                orderExportService.export(OrderExportService.Format.CSV, CREATED_AT, CREATED_AT.plusDays(1),
+                        OutputStream::nullOutputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void assertNoSeqScan(Runnable queries) throws Exception {
+        List<String> statements = RecordingInspector.record(queries);
+        assertFalse(statements.isEmpty(), "No SQL was recorded");
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = openSimpleProtocolConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            for (String sql : statements) {
+                try (ResultSet plan = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql))) {
+                    plan.next();
+                    Set<String> scanned = new LinkedHashSet<>();
+                    collectSeqScans(objectMapper.readTree(plan.getString(1)).get(0).get("Plan"), scanned);
+                    if (!scanned.isEmpty()) {
+                        failures.add("Seq Scan on " + scanned + " for: " + sql);
+                    }
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    // With the extended protocol the driver would expect values for $1, $2, ...; the simple protocol sends the text as is
+    private Connection openSimpleProtocolConnection() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("preferQueryMode", "simple");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private static void collectSeqScans(JsonNode node, Set<String> scanned) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scanned);
+        }
+    }
+
+    // JDBC placeholders (?) become $1, $2, ... so PostgreSQL can plan the statement without values
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    // Registered with Hibernate by class name, so the recording lives in static state
+    public static class RecordingInspector implements StatementInspector {
+        private static final List<String> statements = new ArrayList<>();
+        private static volatile boolean recording;
+
+        static synchronized List<String> record(Runnable queries) {
+            statements.clear();
+            recording = true;
+            try {
+                queries.run();
+            } finally {
+                recording = false;
+            }
+            return new ArrayList<>(new LinkedHashSet<>(statements));
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (recording) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
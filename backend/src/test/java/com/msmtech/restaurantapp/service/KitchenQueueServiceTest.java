@@ -0,0 +1,94 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msmtech.restaurantapp.dto.KitchenOrder;
+import com.msmtech.restaurantapp.dto.OrderResponse;
+import com.msmtech.restaurantapp.entity.Order;
+import com.msmtech.restaurantapp.entity.OrderStatus;
+import com.msmtech.restaurantapp.event.OrderCreatedEvent;
+import com.msmtech.restaurantapp.event.OrderStatusChangedEvent;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Order events reach the board in whatever order their listeners run, not the order their transactions
+ * committed; the board must end up showing the latest version either way.
+ */
+class KitchenQueueServiceTest {
+
+    private static final Long ORDER_ID = 42L;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 18, 30);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final KitchenQueueService kitchenQueue = new KitchenQueueService(orderRepository, new ObjectMapper(), 1, 100);
+
+    @AfterEach
+    void shutdown() {
+        kitchenQueue.shutdown();
+    }
+
+    @Test
+    void lateStatusChangeDoesNotOverwriteNewerOne() {
+        kitchenQueue.onOrderCreated(created(order(OrderStatus.PENDING, 0L)));
+        kitchenQueue.onOrderStatusChanged(statusChanged(OrderStatus.PREPARING, 2L));
+        kitchenQueue.onOrderStatusChanged(statusChanged(OrderStatus.CONFIRMED, 1L));
+
+        assertBoard(OrderStatus.PREPARING, 2L);
+    }
+
+    @Test
+    void lateCreationDoesNotResetLoadedOrder() {
+        // The status change arrives first and loads the order from the database
+        when(orderRepository.findByIdWithItems(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.CONFIRMED, 1L)));
+        kitchenQueue.onOrderStatusChanged(statusChanged(OrderStatus.CONFIRMED, 1L));
+        kitchenQueue.onOrderCreated(created(order(OrderStatus.PENDING, 0L)));
+
+        assertBoard(OrderStatus.CONFIRMED, 1L);
+    }
+
+    @Test
+    void lateEventsDoNotBringBackRemovedOrder() {
+        kitchenQueue.onOrderStatusChanged(statusChanged(OrderStatus.COMPLETED, 3L));
+        kitchenQueue.onOrderCreated(created(order(OrderStatus.PENDING, 0L)));
+        kitchenQueue.onOrderStatusChanged(statusChanged(OrderStatus.PREPARING, 2L));
+
+        assertTrue(kitchenQueue.getQueue().getOrders().isEmpty());
+    }
+
+    private void assertBoard(OrderStatus status, Long version) {
+        List<KitchenOrder> orders = kitchenQueue.getQueue().getOrders();
+        assertEquals(1, orders.size());
+        assertEquals(status.name(), orders.get(0).getStatus());
+        assertEquals(version, orders.get(0).getVersion());
+    }
+
+    private static OrderCreatedEvent created(Order order) {
+        return new OrderCreatedEvent(new OrderResponse(order), order.getCreatedAt());
+    }
+
+    private static OrderStatusChangedEvent statusChanged(OrderStatus status, Long version) {
+        return new OrderStatusChangedEvent(ORDER_ID, status, version, null, "jane@example.com", LocalDateTime.now());
+    }
+
+    private static Order order(OrderStatus status, Long version) {
+        Order order = new Order(null, "Jane Customer", "5550001111", "12 Main Street", null, new ArrayList<>());
+        order.setId(ORDER_ID);
+        order.setStatus(status);
+        order.setCreatedAt(CREATED_AT);
+        // Managed by Hibernate in the application
+        ReflectionTestUtils.setField(order, "version", version);
+        return order;
+    }
+}
@@ -0,0 +1,128 @@
+package com.msmtech.restaurantapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.msmtech.restaurantapp.dto.OrderItemRequest;
+import com.msmtech.restaurantapp.dto.OrderRequest;
+import com.msmtech.restaurantapp.entity.MenuItem;
+import com.msmtech.restaurantapp.repository.IdempotencyRecordRepository;
+import com.msmtech.restaurantapp.repository.MenuRepository;
+import com.msmtech.restaurantapp.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Persistent keys across instances: an instance that loses the race to store a key rolls its order back
+ * and replays the one the winner stored.
+ */
+// The orders are deleted again afterwards, so they must not reach the sales rollups
+@SpringBootTest(properties = {"app.analytics.enabled=false", "app.orders.idempotency.persistent=true"})
+@AutoConfigureMockMvc
+class OrderIdempotencyPersistenceTest {
+
+    private static final String EMAIL = "idempotency@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+    private Long menuItemId;
+
+    @AfterEach
+    void cleanUp() {
+        createdOrderIds.forEach(orderId -> jdbcTemplate.update("DELETE FROM idempotency_keys WHERE order_id = ?", orderId));
+        orderRepository.deleteAllById(createdOrderIds);
+        if (menuItemId != null) {
+            menuRepository.deleteById(menuItemId);
+        }
+    }
+
+    @Test
+    void instanceLosingTheInsertReplaysTheWinner() throws Exception {
+        menuItemId = menuRepository.save(new MenuItem("Idempotency Test Dish", null, 5.0, "Test")).getId();
+        String key = UUID.randomUUID().toString();
+        OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(menuItemId, null, 1, null)), null, null, null);
+        request.setCustomerName("Idempotency Test");
+        request.setCustomerPhone("0000000000");
+
+        // This instance stores the key first
+        String body = mockMvc.perform(post("/api/orders")
+                        .with(user(EMAIL).roles("CUSTOMER"))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+        Long winnerId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        createdOrderIds.add(winnerId);
+        long ordersAfterWinner = orderRepository.count();
+
+        // The other instance looked the key up just before the winner committed, so it inserts too
+        OrderIdempotencyService otherInstance = otherInstance();
+        UserDetails owner = User.withUsername(EMAIL).password("unused").roles("CUSTOMER").build();
+        OrderIdempotencyService.Result result = otherInstance.createOrder(key, request, owner);
+
+        assertTrue(result.isReplayed());
+        assertEquals(winnerId, result.getResponse().getId());
+        assertEquals(ordersAfterWinner, orderRepository.count());
+        assertEquals(1, otherInstance.getReplayed());
+    }
+
+    // Its own key cache, and a first lookup that misses the stored key
+    private OrderIdempotencyService otherInstance() {
+        IdempotencyRecordRepository lateLookup = mock(IdempotencyRecordRepository.class);
+        when(lateLookup.findById(any()))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> idempotencyRecordRepository.findById(invocation.getArgument(0)));
+        OrderIdempotencyService service = new OrderIdempotencyService(orderService, orderRepository, lateLookup, objectMapper);
+        ReflectionTestUtils.setField(service, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(service, "maxKeys", 100L);
+        ReflectionTestUtils.setField(service, "persistent", true);
+        ReflectionTestUtils.setField(service, "waitTimeoutMillis", 1000L);
+        service.init();
+        return service;
+    }
+}
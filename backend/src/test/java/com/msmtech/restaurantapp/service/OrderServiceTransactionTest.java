@@ -0,0 +1,48 @@
+package com.msmtech.restaurantapp.service;
+
+import com.msmtech.restaurantapp.dto.OrderItemRequest;
+import com.msmtech.restaurantapp.dto.OrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Both {@code createOrder} overloads must run in a service transaction; the one without an
+ * idempotency record calls the other through {@code this}, past the transactional proxy.
+ */
+@SpringBootTest
+class OrderServiceTransactionTest {
+
+    // Not on the menu, so the order is rejected before anything is written
+    private static final long UNKNOWN_MENU_ITEM_ID = -1L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void orderWithoutIdempotencyKeyIsCreatedInTransaction() {
+        AtomicBoolean transactionActive = new AtomicBoolean();
+        // createOrder reads the owner's name while building the order
+        UserDetails customer = new User("tx-probe@example.com", "", List.of()) {
+            @Override
+            public String getUsername() {
+                transactionActive.set(TransactionSynchronizationManager.isActualTransactionActive());
+                return super.getUsername();
+            }
+        };
+        OrderRequest request = new OrderRequest(
+                List.of(new OrderItemRequest(UNKNOWN_MENU_ITEM_ID, null, 1, null)), "12 Main Street", null, null);
+
+        assertThrows(OrderService.UnavailableMenuItemException.class, () -> orderService.createOrder(request, customer));
+        assertTrue(transactionActive.get());
+    }
+}
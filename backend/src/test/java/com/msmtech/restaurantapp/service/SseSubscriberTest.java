@@ -0,0 +1,82 @@
+package com.msmtech.restaurantapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client that stops reading must only hold up its own stream, and is dropped once it falls too far behind.
+ */
+class SseSubscriberTest {
+
+    private static final int BUFFER = 4;
+
+    private final ThreadPoolTaskExecutor sendExecutor = SseSubscriber.newSendExecutor("test-stream-", 2, 100);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        sendExecutor.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthersAndIsClosedWhenBehind() throws Exception {
+        CountDownLatch stalledClosed = new CountDownLatch(1);
+        SseSubscriber stalled = new SseSubscriber(new StalledEmitter(), sendExecutor, BUFFER, s -> stalledClosed.countDown());
+        RecordingEmitter reader = new RecordingEmitter(3);
+        SseSubscriber reading = new SseSubscriber(reader, sendExecutor, BUFFER, s -> { });
+
+        // The first event blocks a send thread in the stalled client's write
+        stalled.send(SseEmitter.event().data("0"));
+        for (int i = 1; i <= 3; i++) {
+            stalled.send(SseEmitter.event().data(Integer.toString(i)));
+            reading.send(SseEmitter.event().data(Integer.toString(i)));
+        }
+        assertTrue(reader.received.await(5, TimeUnit.SECONDS));
+        assertEquals(3, reader.events.size());
+
+        // Queue full: the next event closes the stalled stream instead of waiting for it
+        for (int i = 4; i <= BUFFER + 1; i++) {
+            stalled.send(SseEmitter.event().data(Integer.toString(i)));
+        }
+        assertTrue(stalledClosed.await(5, TimeUnit.SECONDS));
+    }
+
+    private class StalledEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Client went away");
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder);
+            received.countDown();
+        }
+    }
+}
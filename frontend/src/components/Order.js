@@ -19,9 +19,9 @@ const Orders = () => {
     try {
       setLoading(true);
       setError('');
-      const userOrders = await ApiService.getMyOrders();
-      if (process.env.NODE_ENV !== 'production') console.log('Raw orders data:', userOrders); // Debug log
-      setOrders(userOrders);
+      const page = await ApiService.getMyOrders();
+      if (process.env.NODE_ENV !== 'production') console.log('Raw orders data:', page); // Debug log
+      setOrders(page?.items || []);
     } catch (error) {
       console.error('Error fetching orders:', error);
       setError('Failed to load orders');
@@ -1,8 +1,11 @@
-import React, { useState } from 'react';
+import React, { useRef, useState } from 'react';
 import { useAuth } from '../context/AuthContext';
 import ApiService from '../services/apiService';
 import './OrderForm.css';
 
+const newIdempotencyKey = () =>
+  window.crypto?.randomUUID ? window.crypto.randomUUID() : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
 const OrderForm = ({ selectedItems = [], onOrderSuccess, onUpdateQuantity, onClearCart }) => {
   const [orderInfo, setOrderInfo] = useState({
     customerName: '',
@@ -13,6 +16,9 @@ const OrderForm = ({ selectedItems = [], onOrderSuccess, onUpdateQuantity, onCle
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const { user, isAuthenticated } = useAuth();
+  // Idempotency key of the order being submitted: kept while the same order is retried, so a retry
+  // after a lost response returns the order that was already placed instead of placing it twice
+  const pendingSubmission = useRef(null);
 
   // Auto-fill user info when user is available
   React.useEffect(() => {
@@ -81,7 +87,13 @@ const OrderForm = ({ selectedItems = [], onOrderSuccess, onUpdateQuantity, onCle
         user: user ? { id: user.id } : null
       };
 
-      const response = await ApiService.createOrder(orderData);
+      const payload = JSON.stringify(orderData);
+      if (!pendingSubmission.current || pendingSubmission.current.payload !== payload) {
+        pendingSubmission.current = { payload, key: newIdempotencyKey() };
+      }
+
+      const response = await ApiService.createOrder(orderData, pendingSubmission.current.key);
+      pendingSubmission.current = null;
 
       // Clear form and cart
       setOrderInfo({
@@ -198,6 +198,8 @@ const Orders = () => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [refreshing, setRefreshing] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const { user } = useAuth();
 
   useEffect(() => {
@@ -217,8 +219,9 @@ const Orders = () => {
       }
       setError('');
 
-      const userOrders = await ApiService.getMyOrders();
-      setOrders(userOrders || []);
+      const page = await ApiService.getMyOrders();
+      setOrders(page?.items || []);
+      setNextCursor(page?.nextCursor || null);
     } catch (error) {
       console.error('Error fetching orders:', error);
       setError('Failed to load orders. Please check your connection and try again.');
@@ -228,10 +231,56 @@ const Orders = () => {
     }
   };
 
+  const loadMoreOrders = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await ApiService.getMyOrders(nextCursor);
+      setOrders(prev => [...prev, ...(page?.items || [])]);
+      setNextCursor(page?.nextCursor || null);
+    } catch (error) {
+      console.error('Error fetching more orders:', error);
+      setError('Failed to load more orders. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRefresh = () => {
     fetchOrders(true);
   };
 
+  // Apply status changes pushed by the server instead of re-fetching the order history
+  useEffect(() => {
+    if (!user) return undefined;
+
+    const controller = new AbortController();
+    let retryTimer;
+    let sessionExpired = false;
+    const connect = () => {
+      ApiService.streamOrderUpdates(({ orderId, status }) => {
+        setOrders(prev => prev.map(order => (order.id === orderId ? { ...order, status } : order)));
+      }, controller)
+        .catch(error => {
+          if (controller.signal.aborted) return;
+          sessionExpired = !!error.sessionExpired;
+          console.warn('Order stream interrupted:', error);
+        })
+        .finally(() => {
+          // The server closes idle streams periodically; reconnect unless we unsubscribed or were logged out
+          if (!controller.signal.aborted && !sessionExpired) {
+            retryTimer = setTimeout(connect, 5000);
+          }
+        });
+    };
+    connect();
+
+    return () => {
+      controller.abort();
+      clearTimeout(retryTimer);
+    };
+  }, [user]);
+
   const getStatusColor = (status) => {
     if (!status) return 'status-pending';
     switch (status.toLowerCase()) {
@@ -446,6 +495,15 @@ const Orders = () => {
               )}
             </div>
           ))}
+          {nextCursor && (
+            <button
+              onClick={loadMoreOrders}
+              className="btn btn-outline"
+              disabled={loadingMore}
+            >
+              {loadingMore ? 'Loading...' : 'Load More Orders'}
+            </button>
+          )}
         </div>
       )}
     </div>
@@ -4,17 +4,17 @@ const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:808
 
 class ApiService {
   // Generic API call with authentication
-  static async callApi(endpoint, options = {}) {
+  static async callApi(endpoint, options = {}, retried = false) {
     const url = `${API_BASE_URL}${endpoint}`;
     const authHeader = AuthService.getAuthHeader();
 
     const config = {
+      ...options,
       headers: {
         'Content-Type': 'application/json',
         ...authHeader,
         ...options.headers,
       },
-      ...options,
     };
 
     // Add body if present (and not a GET request)
@@ -25,8 +25,11 @@ class ApiService {
     try {
       const response = await fetch(url, config);
 
-      // Handle unauthorized (token expired)
+      // Handle unauthorized (token expired): renew it once with the refresh token, then give up
       if (response.status === 401) {
+        if (!retried && await AuthService.refresh()) {
+          return this.callApi(endpoint, options, true);
+        }
         AuthService.logout();
         throw new Error('Session expired. Please login again.');
       }
@@ -49,16 +52,20 @@ class ApiService {
   }
 
   // Order API methods
-  static async createOrder(orderData) {
+  // Send the same idempotencyKey when retrying a submission: the server then returns the first order instead of a duplicate
+  static async createOrder(orderData, idempotencyKey) {
     return this.callApi('/orders', {
       method: 'POST',
       body: orderData,
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {},
     });
   }
 
-  static async getMyOrders() {
+  static async getMyOrders(cursor) {
     // Use the new my-orders endpoint that uses authentication
-    return this.callApi('/orders/my-orders');
+    // Returns one page: { items: [...], nextCursor } (nextCursor is null on the last page)
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    return this.callApi(`/orders/my-orders${query}`);
   }
 
   /*  static async getMyOrders() {
@@ -72,19 +79,71 @@ class ApiService {
       return this.callApi(`/orders/user/email/${currentUser.email}`);
     }*/
 
-  static async getAllOrders() {
-    return this.callApi('/orders');
+  static async getAllOrders(cursor) {
+    // Paged like getMyOrders: { items: [...], nextCursor }
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    return this.callApi(`/orders${query}`);
   }
 
   static async getOrder(orderId) {
     return this.callApi(`/orders/${orderId}`);
   }
 
-  static async updateOrderStatus(orderId, newStatus) {
+  // Pass the order's version to get a 412 instead of overwriting a change made by someone else.
+  // Statuses only move forward (PENDING -> CONFIRMED -> PREPARING -> COMPLETED, or CANCELLED); others answer 409.
+  static async updateOrderStatus(orderId, newStatus, version) {
     return this.callApi(`/orders/${orderId}/status`, {
       method: 'PUT',
       body: newStatus,
+      headers: version != null ? { 'If-Match': `"${version}"` } : {},
+    });
+  }
+
+  // Subscribe to live status changes of the user's orders (Server-Sent Events).
+  // Uses fetch rather than EventSource so the JWT can travel in the Authorization header.
+  // Calls onEvent({ orderId, status, changedAt }) for each change; abort the controller to unsubscribe.
+  // An expired token is renewed once like in callApi; if that fails the user is logged out and the
+  // error has sessionExpired set, so callers know not to reconnect.
+  static async streamOrderUpdates(onEvent, abortController, retried = false) {
+    const response = await fetch(`${API_BASE_URL}/orders/stream`, {
+      headers: { Accept: 'text/event-stream', ...AuthService.getAuthHeader() },
+      signal: abortController.signal,
     });
+    if (response.status === 401) {
+      if (!retried && await AuthService.refresh()) {
+        return this.streamOrderUpdates(onEvent, abortController, true);
+      }
+      AuthService.logout();
+      const error = new Error('Session expired. Please login again.');
+      error.sessionExpired = true;
+      throw error;
+    }
+    if (!response.ok || !response.body) {
+      throw new Error(`Order stream error: ${response.status}`);
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += decoder.decode(value, { stream: true });
+
+      // Events are separated by a blank line; comment lines (":heartbeat") are ignored
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const rawEvent = buffer.slice(0, boundary);
+        buffer = buffer.slice(boundary + 2);
+        const data = rawEvent.split('\n')
+          .filter(line => line.startsWith('data:'))
+          .map(line => line.slice(5))
+          .join('\n');
+        if (data) {
+          onEvent(JSON.parse(data));
+        }
+      }
+    }
   }
 
   // Menu API methods
@@ -12,9 +12,19 @@ class AuthService {
     return localStorage.getItem('jwtToken');
   }
 
-  // Remove token (logout)
+  // Refresh token: exchanged at /auth/refresh for a new access token instead of logging in again
+  static setRefreshToken(refreshToken) {
+    localStorage.setItem('refreshToken', refreshToken);
+  }
+
+  static getRefreshToken() {
+    return localStorage.getItem('refreshToken');
+  }
+
+  // Remove tokens (logout)
   static removeToken() {
     localStorage.removeItem('jwtToken');
+    localStorage.removeItem('refreshToken');
   }
 
   // Check if user is authenticated
@@ -83,7 +93,14 @@ static async register(userData) {
         body: JSON.stringify(credentials),
       });
 
-      const responseData = await response.json();
+      // Error bodies are plain text (e.g. 401 invalid credentials, 429 when the server is busy)
+      const responseText = await response.text();
+      let responseData;
+      try {
+        responseData = JSON.parse(responseText);
+      } catch {
+        responseData = { message: responseText };
+      }
 
       if (!response.ok) {
         const errorMessage = responseData.message ||
@@ -92,11 +109,14 @@ static async register(userData) {
         throw new Error(errorMessage);
       }
 
-      // Store the token
+      // Store the tokens
       if (responseData.token) {
         this.setToken(responseData.token);
         if (DEBUG) console.log('Token stored successfully');
       }
+      if (responseData.refreshToken) {
+        this.setRefreshToken(responseData.refreshToken);
+      }
 
       return responseData;
 
@@ -106,8 +126,56 @@ static async register(userData) {
     }
   }
 
+  // Get a new access token with the refresh token. Concurrent callers share one request:
+  // each refresh token works only once, so a second parallel refresh would be refused.
+  // Resolves to true when new tokens were stored.
+  static refresh() {
+    if (!this.refreshPromise) {
+      this.refreshPromise = this.doRefresh().finally(() => {
+        this.refreshPromise = null;
+      });
+    }
+    return this.refreshPromise;
+  }
+
+  static async doRefresh() {
+    const refreshToken = this.getRefreshToken();
+    if (!refreshToken) return false;
+
+    try {
+      const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ refreshToken }),
+      });
+      if (!response.ok) return false;
+
+      const responseData = await response.json();
+      this.setToken(responseData.token);
+      this.setRefreshToken(responseData.refreshToken);
+      return true;
+    } catch (error) {
+      console.error('Token refresh error:', error);
+      return false;
+    }
+  }
+
   // Logout user
   static logout() {
+    const refreshToken = this.getRefreshToken();
+    if (refreshToken) {
+      // Best effort: end the server-side session too
+      fetch(`${API_BASE_URL}/auth/logout`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ refreshToken }),
+        keepalive: true,
+      }).catch(() => {});
+    }
     this.removeToken();
     // Redirect to login page
     window.location.href = '/login';